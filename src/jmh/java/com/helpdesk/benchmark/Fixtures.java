@@ -0,0 +1,61 @@
+package com.helpdesk.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.PriorityEnum;
+import com.helpdesk.api.enums.ProfileEnum;
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Dados gerados para os benchmarks, sempre com a mesma semente para que as execuções sejam comparáveis.
+ *
+ */
+final class Fixtures {
+
+	//Imagem inline de ~100KB, tamanho típico de uma captura de tela em data URL
+	private static final String IMAGE = "data:image/png;base64," + String.join("", Collections.nCopies(100 * 1024 / 4, "iVBO"));
+	
+	private Fixtures() {
+	}
+	
+	static User user(String id, String email) {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1ZmWmJ1Qc0z1z2Q8fN6e2aG");
+		user.setProfile(ProfileEnum.ROLE_CUSTOMER);
+		return user;
+	}
+	
+	static List<Ticket> tickets(int count, boolean withImage) {
+		Random random = new Random(42);
+		List<User> users = Arrays.asList(
+				user("5b9f1c2e8d1a4c0001a1b2c1", "customer1@helpdesk.com"),
+				user("5b9f1c2e8d1a4c0001a1b2c2", "customer2@helpdesk.com"),
+				user("5b9f1c2e8d1a4c0001a1b2c3", "customer3@helpdesk.com"));
+		StatusEnum[] statuses = StatusEnum.values();
+		PriorityEnum[] priorities = PriorityEnum.values();
+		List<Ticket> tickets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Ticket ticket = new Ticket();
+			ticket.setId(String.format("5b9f1c2e8d1a4c%010d", i));
+			ticket.setNumber(i + 1);
+			ticket.setTitle("Ticket " + i);
+			ticket.setDescription("Descrição do ticket " + i + " com alguns detalhes do problema informado pelo cliente.");
+			ticket.setStatus(statuses[random.nextInt(statuses.length)]);
+			ticket.setPriority(priorities[random.nextInt(priorities.length)]);
+			ticket.setDate(new Date(1538352000000L + i * 60000L));
+			ticket.setUser(users.get(random.nextInt(users.size())));
+			ticket.setImage(withImage ? IMAGE : null);
+			tickets.add(ticket);
+		}
+		return tickets;
+	}
+}
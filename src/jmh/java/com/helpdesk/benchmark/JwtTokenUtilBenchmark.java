@@ -0,0 +1,82 @@
+package com.helpdesk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.helpdesk.api.security.jwt.JwtToken;
+import com.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.helpdesk.api.security.jwt.JwtUser;
+import com.helpdesk.api.security.jwt.JwtUserFactory;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Custo do token JWT em cada requisição: geração, verificação sem cache (assinatura HS512), verificação com cache e validação.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+	private static final String SECRET = "helpDesk_and";
+	
+	private JwtTokenUtil jwtTokenUtil;
+	
+	private JwtUser jwtUser;
+	
+	private String token;
+	
+	private JwtToken verified;
+	
+	@Setup
+	public void setup() {
+		this.jwtTokenUtil = new JwtTokenUtil();
+		ReflectionTestUtils.setField(this.jwtTokenUtil, "secret", SECRET);
+		ReflectionTestUtils.setField(this.jwtTokenUtil, "expiration", 604800L);
+		ReflectionTestUtils.setField(this.jwtTokenUtil, "cacheMaximumSize", 10000L);
+		this.jwtTokenUtil.init();
+		
+		this.jwtUser = JwtUserFactory.create(Fixtures.user("5b9f1c2e8d1a4c0001a1b2c3", "technician@helpdesk.com"));
+		this.token = this.jwtTokenUtil.generateToken(this.jwtUser);
+		this.verified = this.jwtTokenUtil.verifyToken(this.token);
+	}
+	
+	@Benchmark
+	public String generate() {
+		return this.jwtTokenUtil.generateToken(this.jwtUser);
+	}
+	
+	/**
+	 * Decodificação e verificação da assinatura, como era feito várias vezes por requisição antes do cache.
+	 */
+	@Benchmark
+	public Claims parse() {
+		return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(this.token).getBody();
+	}
+	
+	@Benchmark
+	public JwtToken verifyCached() {
+		return this.jwtTokenUtil.verifyToken(this.token);
+	}
+	
+	@Benchmark
+	public Boolean validate() {
+		return this.jwtTokenUtil.validateToken(this.verified, this.jwtUser);
+	}
+}
@@ -0,0 +1,33 @@
+package com.helpdesk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.security.jwt.JwtUser;
+import com.helpdesk.api.security.jwt.JwtUserFactory;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUserFactoryBenchmark {
+
+	private final User user = Fixtures.user("5b9f1c2e8d1a4c0001a1b2c3", "customer@helpdesk.com");
+	
+	@Benchmark
+	public JwtUser create() {
+		return JwtUserFactory.create(this.user);
+	}
+}
@@ -0,0 +1,87 @@
+package com.helpdesk.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.response.Response;
+
+/**
+ * Serialização JSON de uma página de tickets: o ticket completo com e sem a imagem inline, e o item projetado das listagens.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "10", "50" })
+	private int pageSize;
+	
+	private ObjectMapper objectMapper;
+	
+	private Response<Page<Ticket>> ticketsWithImage;
+	
+	private Response<Page<Ticket>> tickets;
+	
+	private Response<Page<TicketItem>> items;
+	
+	@Setup
+	public void setup() {
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		this.ticketsWithImage = page(Fixtures.tickets(this.pageSize, true));
+		List<Ticket> withoutImage = Fixtures.tickets(this.pageSize, false);
+		this.tickets = page(withoutImage);
+		
+		Map<String, User> users = new HashMap<>();
+		withoutImage.forEach(ticket -> users.put(ticket.getUser().getId(), ticket.getUser()));
+		this.items = page(withoutImage.stream().map(ticket -> TicketItem.of(ticket, users)).collect(Collectors.toList()));
+	}
+	
+	@Benchmark
+	public byte[] ticketsWithImage() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.ticketsWithImage);
+	}
+	
+	@Benchmark
+	public byte[] ticketsWithoutImage() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.tickets);
+	}
+	
+	@Benchmark
+	public byte[] ticketItems() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.items);
+	}
+	
+	private <T> Response<Page<T>> page(List<T> content) {
+		Response<Page<T>> response = new Response<Page<T>>();
+		response.setData(new PageImpl<>(content, PageRequest.of(0, this.pageSize), 10000));
+		return response;
+	}
+}
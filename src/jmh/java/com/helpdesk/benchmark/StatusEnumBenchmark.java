@@ -0,0 +1,38 @@
+package com.helpdesk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helpdesk.api.enums.StatusEnum;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusEnumBenchmark {
+
+	@Param({ "New", "Closed", "uninformed" })
+	private String status;
+	
+	@Benchmark
+	public StatusEnum getStatus() {
+		return StatusEnum.getStatus(this.status);
+	}
+	
+	@Benchmark
+	public boolean canChangeTo() {
+		return StatusEnum.getStatus(this.status).canChangeTo(StatusEnum.Assigned);
+	}
+}
@@ -0,0 +1,103 @@
+package com.helpdesk.benchmark;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.TicketCounter;
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Resumo de tickets: o laço que percorria todos os tickets no findSumary, comparado à leitura dos contadores mantidos na escrita.
+ * O custo da consulta ao Mongo não entra na medida, apenas o processamento em memória.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	private int ticketCount;
+	
+	private List<Ticket> tickets;
+	
+	private TicketCounter counter;
+	
+	@Setup
+	public void setup() {
+		this.tickets = Fixtures.tickets(this.ticketCount, false);
+		Map<StatusEnum, Long> amounts = new EnumMap<>(StatusEnum.class);
+		this.tickets.forEach(ticket -> amounts.merge(ticket.getStatus(), 1L, Long::sum));
+		Map<String, Long> counterAmounts = new HashMap<>();
+		amounts.forEach((status, amount) -> counterAmounts.put(status.name(), amount));
+		this.counter = new TicketCounter();
+		this.counter.setId(TicketCounter.ALL);
+		this.counter.setAmounts(counterAmounts);
+	}
+	
+	/**
+	 * Laço original do TicketController.findSumary.
+	 */
+	@Benchmark
+	public Summary legacyLoop() {
+		Summary summary = new Summary();
+		int amountNew = 0;
+		int amountResolved = 0;
+		int amountApproved = 0;
+		int amountDisapproved = 0;
+		int amountAssigned = 0;
+		int amountClosed = 0;
+		for (Ticket ticket : this.tickets) {
+			if (ticket.getStatus().equals(StatusEnum.New)) {
+				amountNew++;
+			}
+			if (ticket.getStatus().equals(StatusEnum.Resolved)) {
+				amountResolved++;
+			}
+			if (ticket.getStatus().equals(StatusEnum.Approved)) {
+				amountApproved++;
+			}
+			if (ticket.getStatus().equals(StatusEnum.Disaproved)) {
+				amountDisapproved++;
+			}
+			if (ticket.getStatus().equals(StatusEnum.Assigned)) {
+				amountAssigned++;
+			}
+			if (ticket.getStatus().equals(StatusEnum.Closed)) {
+				amountClosed++;
+			}
+		}
+		summary.setAmountNew(amountNew);
+		summary.setAmountResolved(amountResolved);
+		summary.setAmountApproved(amountApproved);
+		summary.setAmountDisapproved(amountDisapproved);
+		summary.setAmountAssigned(amountAssigned);
+		summary.setAmountClosed(amountClosed);
+		return summary;
+	}
+	
+	@Benchmark
+	public Summary counters() {
+		return Summary.of(this.counter);
+	}
+}
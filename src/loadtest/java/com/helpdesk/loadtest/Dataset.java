@@ -0,0 +1,98 @@
+package com.helpdesk.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Dados semeados que o driver usa para montar as requisições: credenciais, palavras dos títulos
+ * e o estado conhecido dos tickets que ainda podem mudar de status.
+ *
+ */
+public class Dataset {
+
+	public static final String PASSWORD = "123456";
+	
+	private final List<String> customers = new ArrayList<>();
+	
+	private final List<String> technicians = new ArrayList<>();
+	
+	private final List<String> words = new ArrayList<>();
+	
+	//Tickets abertos indexados pelo id. O driver atualiza o status e a versão a cada alteração bem sucedida
+	private final Map<String, TicketState> openTickets = new ConcurrentHashMap<>();
+	
+	private final List<String> openTicketIds = new ArrayList<>();
+	
+	public List<String> getCustomers() {
+		return customers;
+	}
+	
+	public List<String> getTechnicians() {
+		return technicians;
+	}
+	
+	public List<String> getWords() {
+		return words;
+	}
+	
+	public List<String> getOpenTicketIds() {
+		return openTicketIds;
+	}
+	
+	public void addOpenTicket(String id, StatusEnum status, long version) {
+		this.openTickets.put(id, new TicketState(status, version));
+		this.openTicketIds.add(id);
+	}
+	
+	/**
+	 * Reserva o ticket para uma alteração, evitando que duas requisições do driver concorram pelo mesmo ticket.
+	 * @return o estado atual ou null se o ticket está reservado ou fechado
+	 */
+	public TicketState take(String id) {
+		return this.openTickets.remove(id);
+	}
+	
+	public void release(String id, TicketState state) {
+		if (state != null && state.getStatus() != StatusEnum.Closed) {
+			this.openTickets.put(id, state);
+		}
+	}
+	
+	public static class TicketState {
+		
+		private final StatusEnum status;
+		
+		private final long version;
+		
+		public TicketState(StatusEnum status, long version) {
+			this.status = status;
+			this.version = version;
+		}
+		
+		public StatusEnum getStatus() {
+			return status;
+		}
+		
+		public long getVersion() {
+			return version;
+		}
+		
+		/**
+		 * Próximo status no fluxo de atendimento. Tickets resolvidos são aprovados na maioria das vezes.
+		 */
+		public StatusEnum next(boolean approve) {
+			switch (this.status) {
+				case New: return StatusEnum.Assigned;
+				case Assigned: return StatusEnum.Resolved;
+				case Resolved: return approve ? StatusEnum.Approved : StatusEnum.Disaproved;
+				case Disaproved: return StatusEnum.Assigned;
+				case Approved: return StatusEnum.Closed;
+				default : return null;
+			}
+		}
+	}
+}
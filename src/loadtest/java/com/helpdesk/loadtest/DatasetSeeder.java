@@ -0,0 +1,183 @@
+package com.helpdesk.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.RecentChange;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.PriorityEnum;
+import com.helpdesk.api.enums.ProfileEnum;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.service.TicketCounterService;
+
+/**
+ * Popula o banco com usuários, tickets e o histórico de status de cada ticket, seguindo o fluxo de atendimento.
+ * A semente do gerador é fixa por padrão, então duas execuções com os mesmos parâmetros geram os mesmos dados.
+ *
+ */
+public class DatasetSeeder {
+
+	private static final int BATCH_SIZE = 1000;
+	
+	private static final List<String> WORDS = Arrays.asList("impressora", "rede", "senha", "email", "sistema", "acesso",
+			"lentidao", "erro", "backup", "servidor", "vpn", "telefone", "monitor", "cadastro", "relatorio", "licenca",
+			"atualizacao", "certificado", "pasta", "conta");
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	private final LoadTestSettings settings;
+	
+	private final MongoTemplate mongoTemplate;
+	
+	private final PasswordEncoder passwordEncoder;
+	
+	private final TicketCounterService ticketCounterService;
+	
+	private final boolean historyEmbedded;
+	
+	private final int historySize;
+	
+	private final Random random;
+	
+	public DatasetSeeder(ApplicationContext context, LoadTestSettings settings) {
+		Environment environment = context.getEnvironment();
+		this.settings = settings;
+		this.mongoTemplate = context.getBean(MongoTemplate.class);
+		this.passwordEncoder = context.getBean(PasswordEncoder.class);
+		this.ticketCounterService = context.getBean(TicketCounterService.class);
+		this.historyEmbedded = environment.getProperty("helpdesk.ticket.history.embedded", Boolean.class, true);
+		this.historySize = environment.getProperty("helpdesk.ticket.history.size", Integer.class, 10);
+		this.random = new Random(settings.getSeed());
+	}
+	
+	public Dataset seed() {
+		long start = System.currentTimeMillis();
+		Dataset dataset = new Dataset();
+		dataset.getWords().addAll(WORDS);
+		
+		//O hash é calculado uma única vez: o BCrypt de milhares de usuários dominaria o tempo de preparação
+		String password = this.passwordEncoder.encode(Dataset.PASSWORD);
+		List<User> customers = insertUsers("customer", settings.getCustomers(), ProfileEnum.ROLE_CUSTOMER, password);
+		List<User> technicians = insertUsers("technician", settings.getTechnicians(), ProfileEnum.ROLE_TECHNICIAN, password);
+		customers.forEach(user -> dataset.getCustomers().add(user.getEmail()));
+		technicians.forEach(user -> dataset.getTechnicians().add(user.getEmail()));
+		
+		long changes = 0;
+		List<Ticket> tickets = new ArrayList<>(BATCH_SIZE);
+		List<ChangeStatus> history = new ArrayList<>();
+		for (int number = 1; number <= settings.getTickets(); number++) {
+			Ticket ticket = newTicket(number, pick(customers));
+			history.addAll(walkStatus(ticket, customers, technicians));
+			tickets.add(ticket);
+			if (ticket.getStatus() != StatusEnum.Closed) {
+				dataset.addOpenTicket(ticket.getId(), ticket.getStatus(), ticket.getVersion());
+			}
+			if (tickets.size() == BATCH_SIZE || number == settings.getTickets()) {
+				this.mongoTemplate.insert(tickets, Ticket.class);
+				this.mongoTemplate.insert(history, ChangeStatus.class);
+				changes += history.size();
+				tickets.clear();
+				history.clear();
+			}
+		}
+		
+		this.ticketCounterService.rebuild();
+		logger.info("HelpDesk-LoadTest | seeded " + customers.size() + " customers, " + technicians.size() + " technicians, "
+				+ settings.getTickets() + " tickets and " + changes + " status changes in "
+				+ TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - start) + "s");
+		return dataset;
+	}
+	
+	private List<User> insertUsers(String prefix, int amount, ProfileEnum profile, String password) {
+		List<User> users = new ArrayList<>(amount);
+		for (int i = 1; i <= amount; i++) {
+			User user = new User();
+			user.setEmail(prefix + i + "@loadtest.helpdesk.com");
+			user.setPassword(password);
+			user.setProfile(profile);
+			users.add(user);
+		}
+		for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+			this.mongoTemplate.insert(users.subList(from, Math.min(from + BATCH_SIZE, users.size())), User.class);
+		}
+		return users;
+	}
+	
+	private Ticket newTicket(int number, User customer) {
+		Ticket ticket = new Ticket();
+		ticket.setId(new ObjectId().toHexString());
+		ticket.setNumber(number);
+		ticket.setUser(customer);
+		ticket.setDate(new Date(System.currentTimeMillis() - (long) (this.random.nextDouble() * TimeUnit.DAYS.toMillis(365))));
+		ticket.setTitle(words(3) + " #" + number);
+		ticket.setDescription(words(20));
+		ticket.setPriority(PriorityEnum.values()[this.random.nextInt(PriorityEnum.values().length)]);
+		ticket.setStatus(StatusEnum.New);
+		ticket.setVersion(0L);
+		return ticket;
+	}
+	
+	/**
+	 * Avança o ticket pelo fluxo de atendimento, registrando cada alteração no histórico e nas alterações recentes.
+	 */
+	private List<ChangeStatus> walkStatus(Ticket ticket, List<User> customers, List<User> technicians) {
+		int steps = this.random.nextInt(2 * settings.getChangesPerTicket() + 1);
+		List<ChangeStatus> history = new ArrayList<>(steps);
+		LinkedList<RecentChange> recentChanges = new LinkedList<>();
+		Date date = ticket.getDate();
+		User technician = pick(technicians);
+		for (int i = 0; i < steps; i++) {
+			StatusEnum status = new Dataset.TicketState(ticket.getStatus(), 0).next(this.random.nextInt(10) < 8);
+			if (status == null) {
+				break;
+			}
+			date = new Date(date.getTime() + (long) (this.random.nextDouble() * TimeUnit.DAYS.toMillis(2)));
+			//O cliente aprova ou reprova a solução, as demais alterações são do técnico
+			User userChange = status == StatusEnum.Approved || status == StatusEnum.Disaproved ? ticket.getUser() : technician;
+			if (status == StatusEnum.Assigned) {
+				ticket.setAssigneUser(technician);
+			}
+			ticket.setStatus(status);
+			ticket.setVersion(ticket.getVersion() + 1);
+			
+			ChangeStatus changeStatus = new ChangeStatus();
+			changeStatus.setTicket(ticket);
+			changeStatus.setUserChange(userChange);
+			changeStatus.setDateChange(date);
+			changeStatus.setStatus(status);
+			history.add(changeStatus);
+			recentChanges.addFirst(new RecentChange(date, status, userChange));
+		}
+		if (this.historyEmbedded && !recentChanges.isEmpty()) {
+			ticket.setRecentChanges(new ArrayList<>(recentChanges.subList(0, Math.min(this.historySize, recentChanges.size()))));
+		}
+		return history;
+	}
+	
+	private String words(int amount) {
+		List<String> words = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			words.add(pick(WORDS));
+		}
+		return String.join(" ", words);
+	}
+	
+	private <T> T pick(List<T> values) {
+		return values.get(this.random.nextInt(values.size()));
+	}
+}
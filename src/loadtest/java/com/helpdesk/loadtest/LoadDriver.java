@@ -0,0 +1,259 @@
+package com.helpdesk.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Dispara o mix de requisições numa taxa fixa (modelo aberto): o disparo não espera as respostas anteriores,
+ * como acontece com usuários reais. As requisições do aquecimento são executadas mas não entram no resultado.
+ *
+ */
+public class LoadDriver {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	//Leituras e autenticação vão para a aplicação medida, as alterações de status sempre para a aplicação principal
+	private final String readUrl;
+	
+	private final String writeUrl;
+	
+	private final LoadTestSettings settings;
+	
+	private final Dataset dataset;
+	
+	private final RestTemplate restTemplate;
+	
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	
+	private final List<String> customerTokens = Collections.synchronizedList(new ArrayList<>());
+	
+	private final List<String> technicianTokens = Collections.synchronizedList(new ArrayList<>());
+	
+	private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+	
+	private final Operation[] weightedOperations;
+	
+	private final ThreadPoolExecutor executor;
+	
+	public LoadDriver(String readUrl, String writeUrl, LoadTestSettings settings, Dataset dataset) {
+		this.readUrl = readUrl;
+		this.writeUrl = writeUrl;
+		this.settings = settings;
+		this.dataset = dataset;
+		
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(5000);
+		requestFactory.setReadTimeout(60000);
+		this.restTemplate = new RestTemplate(requestFactory);
+		//Respostas de erro também são medidas, então nenhuma delas deve virar exceção
+		this.restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+			@Override
+			public boolean hasError(ClientHttpResponse response) throws IOException {
+				return false;
+			}
+		});
+		
+		List<Operation> weighted = new ArrayList<>();
+		settings.getMix().forEach((operation, weight) -> {
+			this.stats.put(operation, new OperationStats());
+			for (int i = 0; i < weight; i++) {
+				weighted.add(operation);
+			}
+		});
+		this.weightedOperations = weighted.toArray(new Operation[0]);
+		
+		//A fila limita as requisições pendentes: acima dela o servidor já não acompanha a taxa e o disparo é descartado
+		this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(settings.getThreads() * 100));
+		this.executor.prestartAllCoreThreads();
+	}
+	
+	/**
+	 * Autentica os usuários que terão sessão durante o teste: todos os técnicos e até 500 clientes.
+	 */
+	public void login() throws InterruptedException, ExecutionException {
+		List<Callable<String>> logins = new ArrayList<>();
+		this.dataset.getTechnicians().forEach(email -> logins.add(() -> login(email, this.technicianTokens)));
+		this.dataset.getCustomers().stream().limit(500).forEach(email -> logins.add(() -> login(email, this.customerTokens)));
+		for (Future<String> login : this.executor.invokeAll(logins)) {
+			login.get();
+		}
+		logger.info("HelpDesk-LoadTest | " + this.technicianTokens.size() + " technician and " + this.customerTokens.size()
+				+ " customer sessions");
+	}
+	
+	private String login(String email, List<String> tokens) throws IOException {
+		ResponseEntity<byte[]> response = authenticate(email);
+		if (!response.getStatusCode().is2xxSuccessful()) {
+			throw new IllegalStateException("Login failed for " + email + ": " + response.getStatusCode());
+		}
+		String token = this.objectMapper.readTree(response.getBody()).path("token").asText();
+		tokens.add(token);
+		return token;
+	}
+	
+	public Map<Operation, OperationStats> run() throws InterruptedException {
+		long interval = TimeUnit.SECONDS.toNanos(1) / this.settings.getRate();
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(this.settings.getWarmup());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(this.settings.getDuration());
+		logger.info("HelpDesk-LoadTest | warming up for " + this.settings.getWarmup() + "s, measuring for " + this.settings.getDuration() + "s");
+		
+		for (long i = 0; ; i++) {
+			final long intended = start + i * interval;
+			if (intended >= end) {
+				break;
+			}
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			final Operation operation = this.weightedOperations[ThreadLocalRandom.current().nextInt(this.weightedOperations.length)];
+			final boolean measured = intended >= measureFrom;
+			try {
+				this.executor.execute(() -> execute(operation, intended, measured));
+			} catch (RejectedExecutionException e) {
+				if (measured) {
+					this.stats.get(operation).drop();
+				}
+			}
+		}
+		
+		this.executor.shutdown();
+		this.executor.awaitTermination(2, TimeUnit.MINUTES);
+		return this.stats;
+	}
+	
+	private void execute(Operation operation, long intended, boolean measured) {
+		long started = System.nanoTime();
+		int status;
+		try {
+			status = call(operation);
+		} catch (Exception e) {
+			status = 0;
+		}
+		long finished = System.nanoTime();
+		if (measured) {
+			this.stats.get(operation).record(status, finished - intended, finished - started);
+		}
+	}
+	
+	private int call(Operation operation) throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		switch (operation) {
+			case Auth:
+				List<String> emails = random.nextInt(10) < 8 ? this.dataset.getCustomers() : this.dataset.getTechnicians();
+				return authenticate(pick(emails)).getStatusCodeValue();
+			case TicketList:
+				return get(anyToken(), "/api/ticket/{page}/{count}", random.nextInt(5), this.settings.getPageSize());
+			case TicketSearch:
+				String word = pick(this.dataset.getWords());
+				if (this.settings.isTextSearch()) {
+					return get(anyToken(), "/api/ticket/search/0/{count}/{text}/uninformed/uninformed/false", this.settings.getPageSize(), word);
+				}
+				return get(anyToken(), "/api/ticket/0/{count}/0/{title}/uninformed/uninformed/false", this.settings.getPageSize(), word);
+			case StatusChange:
+				return changeStatus();
+			case Summary:
+				return get(anyToken(), "/api/ticket/sumary");
+			default:
+				throw new IllegalArgumentException(operation.name());
+		}
+	}
+	
+	/**
+	 * Avança um ticket aberto para o próximo status, enviando a versão conhecida como faria a tela de edição.
+	 * Aprovação e reprovação são feitas por um cliente, as demais alterações por um técnico.
+	 */
+	private int changeStatus() throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<String> ids = this.dataset.getOpenTicketIds();
+		for (int attempt = 0; attempt < 10; attempt++) {
+			String id = ids.get(random.nextInt(ids.size()));
+			Dataset.TicketState state = this.dataset.take(id);
+			if (state == null) {
+				continue;
+			}
+			StatusEnum status = state.next(random.nextInt(10) < 8);
+			String token = status == StatusEnum.Approved || status == StatusEnum.Disaproved
+					? pick(this.customerTokens) : pick(this.technicianTokens);
+			Map<String, Object> body = new HashMap<>();
+			body.put("version", state.getVersion());
+			//Sem resposta 2xx o ticket volta ao estado anterior, para não sair do dataset durante o restante da medição
+			Dataset.TicketState released = state;
+			try {
+				ResponseEntity<byte[]> response = exchange(this.writeUrl, token, HttpMethod.PUT, "/api/ticket/{id}/{status}", body, id, status.name());
+				if (response.getStatusCode().is2xxSuccessful()) {
+					JsonNode ticket = this.objectMapper.readTree(response.getBody()).path("data");
+					released = new Dataset.TicketState(status, ticket.path("version").asLong(state.getVersion() + 1));
+				}
+				return response.getStatusCodeValue();
+			} finally {
+				this.dataset.release(id, released);
+			}
+		}
+		//Nenhum ticket livre: todos fechados ou em alteração
+		return 0;
+	}
+	
+	private ResponseEntity<byte[]> authenticate(String email) {
+		Map<String, String> body = new HashMap<>();
+		body.put("email", email);
+		body.put("password", Dataset.PASSWORD);
+		return exchange(this.readUrl, null, HttpMethod.POST, "/api/auth", body);
+	}
+	
+	private int get(String token, String path, Object... variables) {
+		return exchange(this.readUrl, token, HttpMethod.GET, path, null, variables).getStatusCodeValue();
+	}
+	
+	private ResponseEntity<byte[]> exchange(String baseUrl, String token, HttpMethod method, String path, Object body, Object... variables) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+		if (body != null) {
+			headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+		if (token != null) {
+			headers.set("Authorization", token);
+		}
+		return this.restTemplate.exchange(baseUrl + path, method, new HttpEntity<>(body, headers), byte[].class, variables);
+	}
+	
+	private String anyToken() {
+		return ThreadLocalRandom.current().nextInt(10) < 7 ? pick(this.customerTokens) : pick(this.technicianTokens);
+	}
+	
+	private <T> T pick(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+}
@@ -0,0 +1,131 @@
+package com.helpdesk.loadtest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Relatório do teste: tabela no console e, no diretório do relatório, report.json, report.csv e a distribuição
+ * completa de latência de cada operação no formato do HdrHistogram (.hgrm).
+ *
+ */
+public class LoadReport {
+
+	private static final String[] PERCENTILES = { "50", "90", "99", "99.9" };
+	
+	private final LoadTestSettings settings;
+	
+	private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+	
+	public LoadReport(LoadTestSettings settings, Map<Operation, OperationStats> stats) {
+		this.settings = settings;
+		OperationStats all = new OperationStats();
+		stats.forEach((operation, operationStats) -> {
+			this.stats.put(operation.getName(), operationStats);
+			all.add(operationStats);
+		});
+		this.stats.put("all", all);
+	}
+	
+	public void write() throws IOException {
+		print(System.out);
+		File dir = new File(this.settings.getReportDir());
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Report directory could not be created: " + dir);
+		}
+		writeCsv(new File(dir, "report.csv"));
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(dir, "report.json"), toMap());
+		for (Map.Entry<String, OperationStats> entry : this.stats.entrySet()) {
+			try (PrintStream out = new PrintStream(new FileOutputStream(new File(dir, entry.getKey() + ".hgrm")), false, "UTF-8")) {
+				//Valores em microssegundos, exibidos em milissegundos
+				entry.getValue().getLatency().outputPercentileDistribution(out, 1000.0);
+			}
+		}
+		System.out.println("Report written to " + dir.getAbsolutePath());
+	}
+	
+	private void print(PrintStream out) {
+		out.println();
+		out.println(this.settings);
+		out.println(String.format("%-14s %9s %9s %8s %8s %10s %10s %10s %10s %10s", "operation", "requests", "req/s",
+				"errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		this.stats.forEach((name, operation) -> {
+			Histogram latency = operation.getLatency();
+			out.println(String.format("%-14s %9d %9.1f %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f", name, operation.getRequests(),
+					throughput(operation), operation.getErrors(), operation.getDropped(),
+					millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+					millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue())));
+		});
+		out.println();
+	}
+	
+	private void writeCsv(File file) throws IOException {
+		try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+			out.println("operation,requests,throughput,errors,dropped,latency_p50_ms,latency_p90_ms,latency_p99_ms,latency_p999_ms,"
+					+ "latency_max_ms,service_p50_ms,service_p99_ms");
+			this.stats.forEach((name, operation) -> out.println(String.join(",", name, String.valueOf(operation.getRequests()),
+					format(throughput(operation)), String.valueOf(operation.getErrors()), String.valueOf(operation.getDropped()),
+					format(millis(operation.getLatency().getValueAtPercentile(50))),
+					format(millis(operation.getLatency().getValueAtPercentile(90))),
+					format(millis(operation.getLatency().getValueAtPercentile(99))),
+					format(millis(operation.getLatency().getValueAtPercentile(99.9))),
+					format(millis(operation.getLatency().getMaxValue())),
+					format(millis(operation.getServiceTime().getValueAtPercentile(50))),
+					format(millis(operation.getServiceTime().getValueAtPercentile(99))))));
+		}
+	}
+	
+	private Map<String, Object> toMap() {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("settings", this.settings.toString());
+		Map<String, Object> operations = new LinkedHashMap<>();
+		this.stats.forEach((name, operation) -> {
+			Map<String, Object> values = new LinkedHashMap<>();
+			values.put("requests", operation.getRequests());
+			values.put("throughput", throughput(operation));
+			values.put("errors", operation.getErrors());
+			values.put("dropped", operation.getDropped());
+			Map<String, Long> statusCodes = new TreeMap<>();
+			operation.getStatusCodes().forEach((status, count) -> statusCodes.put(String.valueOf(status), count.sum()));
+			values.put("statusCodes", statusCodes);
+			values.put("latencyMs", percentiles(operation.getLatency()));
+			values.put("serviceTimeMs", percentiles(operation.getServiceTime()));
+			operations.put(name, values);
+		});
+		report.put("operations", operations);
+		return report;
+	}
+	
+	private Map<String, Double> percentiles(Histogram histogram) {
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		for (String percentile : PERCENTILES) {
+			percentiles.put("p" + percentile, millis(histogram.getValueAtPercentile(Double.parseDouble(percentile))));
+		}
+		percentiles.put("max", millis(histogram.getMaxValue()));
+		return percentiles;
+	}
+	
+	private double throughput(OperationStats operation) {
+		return (double) operation.getRequests() / this.settings.getDuration();
+	}
+	
+	private double millis(long micros) {
+		return micros / 1000.0;
+	}
+	
+	private String format(double value) {
+		return String.format(Locale.ROOT, "%.2f", value);
+	}
+}
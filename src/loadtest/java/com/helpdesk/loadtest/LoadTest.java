@@ -0,0 +1,96 @@
+package com.helpdesk.loadtest;
+
+import java.net.InetSocketAddress;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.helpdesk.HelpDeskApplication;
+import com.helpdesk.reactive.HelpDeskReactiveApplication;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Teste de carga da aplicação completa: sobe o {@link HelpDeskApplication} numa porta livre, com um Mongo em memória
+ * (ou o informado em {@code --mongo=host:porta}), popula os dados, dispara o mix de requisições e gera o relatório.
+ * Roda sem acesso à rede: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--tickets=50000 --rate=300".
+ * Com {@code --target=reactive} a edição reativa ({@link HelpDeskReactiveApplication}) sobe no mesmo banco e atende
+ * as leituras e a autenticação. Rodando com os mesmos parâmetros e {@code --target=servlet}, os relatórios ficam
+ * lado a lado em target/loadtest/servlet e target/loadtest/reactive.
+ * A comparação da busca textual com o filtro por título (regex) precisa de um Mongo real, pois o servidor em memória
+ * não tem índice textual. Com os mesmos parâmetros, rode uma vez sem e outra com {@code --text-search=true}, por exemplo
+ * {@code --mongo=localhost:27017 --tickets=1000000 --mix.search=100}, e compare target/loadtest/servlet com
+ * target/loadtest/servlet-text-search.
+ *
+ */
+public class LoadTest {
+
+	private static final Log logger = LogFactory.getLog(LoadTest.class);
+	
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = new LoadTestSettings(args);
+		logger.info("HelpDesk-LoadTest | " + settings);
+		
+		MongoServer mongoServer = null;
+		String mongoHost;
+		int mongoPort;
+		if (settings.getMongo() == null) {
+			mongoServer = new MongoServer(new MemoryBackend());
+			InetSocketAddress address = mongoServer.bind();
+			mongoHost = address.getHostString();
+			mongoPort = address.getPort();
+		} else {
+			String[] mongo = settings.getMongo().split(":");
+			mongoHost = mongo[0];
+			mongoPort = mongo.length > 1 ? Integer.parseInt(mongo[1]) : 27017;
+		}
+		
+		//Cada execução usa um banco novo, removido ao final, para que os resultados não dependam de execuções anteriores
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		System.setProperty("http.maxConnections", String.valueOf(settings.getThreads()));
+		String[] applicationArgs = {
+				"--spring.data.mongodb.host=" + mongoHost,
+				"--spring.data.mongodb.port=" + mongoPort,
+				"--spring.data.mongodb.database=helpdesk-loadtest-" + System.currentTimeMillis(),
+				"--server.port=0",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--logging.level.com.helpdesk.loadtest=INFO" };
+		
+		ConfigurableApplicationContext context = SpringApplication.run(HelpDeskApplication.class, applicationArgs);
+		ConfigurableApplicationContext reactiveContext = null;
+		try {
+			Dataset dataset = new DatasetSeeder(context, settings).seed();
+			String servletUrl = baseUrl(context);
+			String readUrl = servletUrl;
+			if (settings.isReactiveTarget()) {
+				reactiveContext = new SpringApplicationBuilder(HelpDeskReactiveApplication.class)
+						.web(WebApplicationType.REACTIVE)
+						.run(applicationArgs);
+				readUrl = baseUrl(reactiveContext);
+			}
+			LoadDriver driver = new LoadDriver(readUrl, servletUrl, settings, dataset);
+			driver.login();
+			new LoadReport(settings, driver.run()).write();
+		} finally {
+			if (reactiveContext != null) {
+				reactiveContext.close();
+			}
+			context.getBean(MongoTemplate.class).getDb().drop();
+			context.close();
+			if (mongoServer != null) {
+				mongoServer.shutdownNow();
+			}
+		}
+	}
+	
+	private static String baseUrl(ConfigurableApplicationContext context) {
+		return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+	}
+}
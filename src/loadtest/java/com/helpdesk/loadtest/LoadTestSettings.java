@@ -0,0 +1,138 @@
+package com.helpdesk.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, informados como {@code --chave=valor}. Os pesos do mix de requisições usam o nome
+ * da operação, por exemplo {@code --mix.list=40}.
+ *
+ */
+public class LoadTestSettings {
+
+	private final Map<String, String> values = new HashMap<>();
+	
+	public LoadTestSettings(String... args) {
+		for (String arg : args) {
+			if (arg.startsWith("--") && arg.contains("=")) {
+				int separator = arg.indexOf('=');
+				this.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+			}
+		}
+	}
+	
+	/**
+	 * Mongo externo no formato host:porta. Sem ele é usado o servidor em memória.
+	 */
+	public String getMongo() {
+		return this.values.get("mongo");
+	}
+	
+	public int getCustomers() {
+		return getInt("customers", 200);
+	}
+	
+	public int getTechnicians() {
+		return getInt("technicians", 20);
+	}
+	
+	public int getTickets() {
+		return getInt("tickets", 20000);
+	}
+	
+	/**
+	 * Média de alterações de status (linhas de ChangeStatus) por ticket.
+	 */
+	public int getChangesPerTicket() {
+		return getInt("changes-per-ticket", 3);
+	}
+	
+	/**
+	 * Requisições por segundo disparadas, independente do tempo de resposta.
+	 */
+	public int getRate() {
+		return getInt("rate", 200);
+	}
+	
+	public int getWarmup() {
+		return getInt("warmup", 20);
+	}
+	
+	public int getDuration() {
+		return getInt("duration", 60);
+	}
+	
+	public int getThreads() {
+		return getInt("threads", 64);
+	}
+	
+	public int getPageSize() {
+		return getInt("page-size", 10);
+	}
+	
+	/**
+	 * Usa a busca textual ($text) em vez do filtro por título. Requer um Mongo real, o servidor em memória não tem índice textual.
+	 */
+	public boolean isTextSearch() {
+		boolean textSearch = Boolean.parseBoolean(this.values.getOrDefault("text-search", "false"));
+		if (textSearch && getMongo() == null) {
+			throw new IllegalArgumentException("The in-memory Mongo has no text index, run --text-search=true with --mongo=host:port");
+		}
+		return textSearch;
+	}
+	
+	/**
+	 * Aplicação medida nas leituras e na autenticação: {@code servlet} (padrão) ou {@code reactive}, a edição WebFlux.
+	 * As alterações de status sempre vão para a aplicação principal, a única com rotas de escrita.
+	 */
+	public String getTarget() {
+		String target = this.values.getOrDefault("target", "servlet");
+		if (!"servlet".equals(target) && !"reactive".equals(target)) {
+			throw new IllegalArgumentException("Unknown target: " + target);
+		}
+		if ("reactive".equals(target) && isTextSearch()) {
+			throw new IllegalArgumentException("The reactive edition has no text search route, run it without --text-search");
+		}
+		return target;
+	}
+	
+	public boolean isReactiveTarget() {
+		return "reactive".equals(getTarget());
+	}
+	
+	public long getSeed() {
+		return Long.parseLong(this.values.getOrDefault("seed", "42"));
+	}
+	
+	/**
+	 * Cada aplicação medida, e a busca textual, tem o próprio diretório, para comparar as execuções lado a lado.
+	 */
+	public String getReportDir() {
+		return this.values.getOrDefault("report.dir", "target/loadtest") + "/" + getTarget() + (isTextSearch() ? "-text-search" : "");
+	}
+	
+	public Map<Operation, Integer> getMix() {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			int weight = getInt("mix." + operation.getName(), operation.getDefaultWeight());
+			if (weight > 0) {
+				mix.put(operation, weight);
+			}
+		}
+		return mix;
+	}
+	
+	private int getInt(String key, int defaultValue) {
+		String value = this.values.get(key);
+		return value != null ? Integer.parseInt(value) : defaultValue;
+	}
+	
+	@Override
+	public String toString() {
+		return "target=" + getTarget() + ", customers=" + getCustomers() + ", technicians=" + getTechnicians() + ", tickets=" + getTickets()
+				+ ", changes-per-ticket=" + getChangesPerTicket() + ", rate=" + getRate() + "/s, warmup=" + getWarmup()
+				+ "s, duration=" + getDuration() + "s, threads=" + getThreads() + ", mix=" + getMix()
+				+ ", text-search=" + isTextSearch() + ", mongo=" + (getMongo() != null ? getMongo() : "in-memory");
+	}
+}
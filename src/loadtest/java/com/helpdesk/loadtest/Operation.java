@@ -0,0 +1,31 @@
+package com.helpdesk.loadtest;
+
+/**
+ * Operações do mix de carga, com o peso padrão de cada uma no total de requisições.
+ *
+ */
+public enum Operation {
+
+	Auth("auth", 5),
+	TicketList("list", 40),
+	TicketSearch("search", 25),
+	StatusChange("change-status", 10),
+	Summary("summary", 20);
+	
+	private final String name;
+	
+	private final int defaultWeight;
+	
+	private Operation(String name, int defaultWeight) {
+		this.name = name;
+		this.defaultWeight = defaultWeight;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+}
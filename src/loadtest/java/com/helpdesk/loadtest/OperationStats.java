@@ -0,0 +1,92 @@
+package com.helpdesk.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultado de uma operação do mix. A latência é medida a partir do instante em que a requisição deveria ter sido
+ * disparada, incluindo a espera por uma thread livre, para que a saturação do servidor apareça nos percentis.
+ *
+ */
+public class OperationStats {
+
+	//Latências em microssegundos, até 1 hora, com 3 dígitos de precisão
+	private static final long HIGHEST_LATENCY = TimeUnit.HOURS.toMicros(1);
+	
+	private final Histogram latency = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+	
+	private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+	
+	private final LongAdder success = new LongAdder();
+	
+	private final LongAdder errors = new LongAdder();
+	
+	private final LongAdder dropped = new LongAdder();
+	
+	private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param status status HTTP, ou 0 quando a requisição falhou sem resposta
+	 * @param latency nanossegundos desde o disparo previsto
+	 * @param serviceTime nanossegundos desde o envio da requisição
+	 */
+	public void record(int status, long latency, long serviceTime) {
+		this.latency.recordValue(Math.min(HIGHEST_LATENCY, TimeUnit.NANOSECONDS.toMicros(latency)));
+		this.serviceTime.recordValue(Math.min(HIGHEST_LATENCY, TimeUnit.NANOSECONDS.toMicros(serviceTime)));
+		if (status >= 200 && status < 300) {
+			this.success.increment();
+		} else {
+			this.errors.increment();
+		}
+		this.statusCodes.computeIfAbsent(status, key -> new LongAdder()).increment();
+	}
+	
+	/**
+	 * Requisição não disparada porque a fila do driver estava cheia.
+	 */
+	public void drop() {
+		this.dropped.increment();
+	}
+	
+	public void add(OperationStats other) {
+		this.latency.add(other.latency);
+		this.serviceTime.add(other.serviceTime);
+		this.success.add(other.success.sum());
+		this.errors.add(other.errors.sum());
+		this.dropped.add(other.dropped.sum());
+		other.statusCodes.forEach((status, count) -> this.statusCodes.computeIfAbsent(status, key -> new LongAdder()).add(count.sum()));
+	}
+	
+	public Histogram getLatency() {
+		return latency;
+	}
+	
+	public Histogram getServiceTime() {
+		return serviceTime;
+	}
+	
+	public long getSuccess() {
+		return success.sum();
+	}
+	
+	public long getErrors() {
+		return errors.sum();
+	}
+	
+	public long getDropped() {
+		return dropped.sum();
+	}
+	
+	public long getRequests() {
+		return getSuccess() + getErrors();
+	}
+	
+	public Map<Integer, LongAdder> getStatusCodes() {
+		return statusCodes;
+	}
+}
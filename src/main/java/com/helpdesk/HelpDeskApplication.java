@@ -3,14 +3,25 @@ package com.helpdesk;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.helpdesk.api.entity.User;
 import com.helpdesk.api.enums.ProfileEnum;
 import com.helpdesk.api.repository.UserRepository;
 
-@SpringBootApplication
+//A edição reativa (com.helpdesk.reactive) é uma aplicação separada, por isso fica fora do scan e da configuração reativa do Mongo
+@SpringBootApplication(scanBasePackages = "com.helpdesk.api", exclude = {
+		MongoReactiveAutoConfiguration.class,
+		MongoReactiveDataAutoConfiguration.class,
+		MongoReactiveRepositoriesAutoConfiguration.class,
+		ReactiveUserDetailsServiceAutoConfiguration.class })
+@EnableScheduling
 public class HelpDeskApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,37 @@
+package com.helpdesk.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.api.metrics.MongoCommandTimer;
+import com.helpdesk.api.metrics.RoleWebMvcTagsProvider;
+import com.helpdesk.api.metrics.TimedJackson2HttpMessageConverter;
+import com.mongodb.MongoClientOptions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instrumentação da aplicação com o Micrometer. As métricas são publicadas em /actuator/prometheus.
+ *
+ */
+@Configuration
+public class MetricsConfig {
+	
+	@Bean
+	public MongoClientOptions mongoClientOptions(MeterRegistry registry) {
+		return MongoClientOptions.builder()
+				.addCommandListener(new MongoCommandTimer(registry))
+				.build();
+	}
+	
+	@Bean
+	public RoleWebMvcTagsProvider webMvcTagsProvider() {
+		return new RoleWebMvcTagsProvider();
+	}
+	
+	@Bean
+	public TimedJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+		return new TimedJackson2HttpMessageConverter(objectMapper, registry);
+	}
+}
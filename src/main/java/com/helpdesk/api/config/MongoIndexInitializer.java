@@ -0,0 +1,178 @@
+package com.helpdesk.api.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketNumberService;
+
+/**
+ * Cria e verifica, ao iniciar a aplicação, os índices usados pelas consultas dos repositórios.
+ * Referências {@code @DBRef} são indexadas pelo campo {@code $id}, que é o campo consultado pelos métodos findBy...Id.
+ *
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements CommandLineRunner {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private TicketNumberService ticketNumberService;
+	
+	@Autowired
+	private RevisionService revisionService;
+	
+	@Value("${helpdesk.ticket.number.renumber-duplicates:true}")
+	private boolean renumberDuplicates;
+	
+	@Override
+	public void run(String... args) throws Exception {
+		String ticket = this.mongoTemplate.getCollectionName(Ticket.class);
+		ensureIndex(ticket, "user_date_id", new Document("user.$id", 1).append("date", -1).append("_id", -1));
+		ensureIndex(ticket, "assigneUser_status_priority_date", new Document("assigneUser.$id", 1).append("status", 1).append("priority", 1).append("date", -1));
+		ensureIndex(ticket, "status_priority_date", new Document("status", 1).append("priority", 1).append("date", -1));
+		//Garante que o número sequencial do ticket não se repita. Sem o índice, a aplicação não deve iniciar
+		if (!hasIndex(ticket, "number_unique")) {
+			renumberDuplicates(ticket);
+		}
+		if (!ensureIndex(ticket, "number_unique", Arrays.asList("number"), new Index("number", Direction.ASC).named("number_unique").unique().background())) {
+			throw new IllegalStateException("HelpDesk-API | index " + ticket + ".number_unique is required to keep ticket numbers unique");
+		}
+		ensureIndex(ticket, "date_id", new Document("date", -1).append("_id", -1));
+		//Busca textual por relevância: o título pesa mais que a descrição
+		ensureIndex(ticket, "title_description_text", Arrays.asList("title", "description"), TextIndexDefinition.builder()
+				.named("title_description_text")
+				.onField("title", 3F)
+				.onField("description")
+				.build());
+		
+		String changeStatus = this.mongoTemplate.getCollectionName(ChangeStatus.class);
+		ensureIndex(changeStatus, "ticket_dateChange", new Document("ticket.$id", 1).append("dateChange", -1));
+	}
+	
+	/**
+	 * Os tickets antigos foram numerados aleatoriamente e podem repetir números, o que impede a criação do índice único.
+	 * Em cada grupo repetido o ticket mais antigo mantém o número e os demais recebem números novos da sequência.
+	 * Tickets sem número também repetiriam a chave null no índice e recebem números da sequência, em ordem de data.
+	 */
+	private void renumberDuplicates(String collection) {
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.match(Criteria.where("number").ne(null)),
+				Aggregation.sort(Direction.ASC, "date").and(Direction.ASC, "_id"),
+				Aggregation.group("number").count().as("count").push("_id").as("ids"),
+				Aggregation.match(Criteria.where("count").gt(1)))
+				.withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+		List<Document> duplicates = this.mongoTemplate.aggregate(aggregation, collection, Document.class).getMappedResults();
+		//number: null também seleciona os documentos sem o campo
+		Query unnumbered = Query.query(Criteria.where("number").is(null)).with(Sort.by(Direction.ASC, "date").and(Sort.by(Direction.ASC, "_id")));
+		unnumbered.fields().include("_id");
+		List<Object> missing = this.mongoTemplate.find(unnumbered, Document.class, collection).stream()
+				.map(document -> document.get("_id"))
+				.collect(Collectors.toList());
+		if (duplicates.isEmpty() && missing.isEmpty()) {
+			return;
+		}
+		if (!this.renumberDuplicates) {
+			throw new IllegalStateException("HelpDesk-API | " + duplicates.size() + " ticket numbers are duplicated and " + missing.size()
+					+ " tickets have no number in " + collection + "; enable helpdesk.ticket.number.renumber-duplicates or fix them before starting");
+		}
+		Date now = new Date();
+		int renumbered = 0;
+		for (Document duplicate : duplicates) {
+			List<?> ids = duplicate.get("ids", List.class);
+			List<Integer> numbers = this.ticketNumberService.nextNumbers(ids.size() - 1);
+			for (int i = 1; i < ids.size(); i++) {
+				renumber(collection, ids.get(i), duplicate.get("_id"), numbers.get(i - 1), now);
+				renumbered++;
+			}
+		}
+		if (!missing.isEmpty()) {
+			List<Integer> numbers = this.ticketNumberService.nextNumbers(missing.size());
+			for (int i = 0; i < missing.size(); i++) {
+				renumber(collection, missing.get(i), null, numbers.get(i), now);
+				renumbered++;
+			}
+		}
+		this.revisionService.increment(RevisionService.TICKET);
+		logger.warn("HelpDesk-API | " + renumbered + " tickets with duplicated or missing numbers renumbered in " + collection);
+	}
+	
+	private void renumber(String collection, Object id, Object previous, Integer number, Date now) {
+		this.mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+				new Update().set("number", number).set("lastModified", now).inc("version", 1), collection);
+		logger.warn("HelpDesk-API | ticket " + id + " renumbered from " + previous + " to " + number);
+	}
+	
+	private boolean hasIndex(String collection, String name) {
+		return this.mongoTemplate.indexOps(collection).getIndexInfo().stream().anyMatch(index -> index.getName().equals(name));
+	}
+	
+	private boolean ensureIndex(String collection, String name, Document keys) {
+		return ensureIndex(collection, name, new ArrayList<>(keys.keySet()), new CompoundIndexDefinition(keys).named(name).background());
+	}
+	
+	/**
+	 * Cria o índice quando ele não existe.
+	 * @return false se o índice existe com outros campos ou não pôde ser criado
+	 */
+	private boolean ensureIndex(String collection, String name, List<String> fields, IndexDefinition definition) {
+		try {
+			IndexOperations indexOperations = this.mongoTemplate.indexOps(collection);
+			Optional<IndexInfo> existing = indexOperations.getIndexInfo().stream()
+					.filter(index -> index.getName().equals(name))
+					.findFirst();
+			if (!existing.isPresent()) {
+				indexOperations.ensureIndex(definition);
+				logger.info("HelpDesk-API | index " + collection + "." + name + " " + fields + " created");
+			} else if (existing.get().getIndexFields().size() == fields.size() && existing.get().isIndexForFields(fields)) {
+				logger.info("HelpDesk-API | index " + collection + "." + name + " verified");
+			} else {
+				logger.warn("HelpDesk-API | index " + collection + "." + name + " exists with fields " + fields(existing.get())
+						+ ", expected " + fields);
+				return false;
+			}
+			return true;
+		} catch (RuntimeException e) {
+			logger.error("HelpDesk-API | index " + collection + "." + name + " could not be created: " + e.getMessage());
+			return false;
+		}
+	}
+	
+	private List<String> fields(IndexInfo index) {
+		return index.getIndexFields().stream().map(IndexField::getKey).collect(Collectors.toList());
+	}
+}
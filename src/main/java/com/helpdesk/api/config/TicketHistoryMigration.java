@@ -0,0 +1,143 @@
+package com.helpdesk.api.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.service.UserService;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+/**
+ * Preenche o histórico embutido ({@link com.helpdesk.api.entity.RecentChange}) dos tickets gravados antes dele existir, a partir das últimas mudanças da coleção de histórico.
+ * Os tickets são migrados em lotes, com uma consulta ao histórico e uma escrita em lote por vez. Ao terminar, a migração grava uma marca
+ * na coleção {@value #MIGRATION_COLLECTION} e não é executada novamente nas próximas inicializações.
+ *
+ */
+@Component
+public class TicketHistoryMigration implements CommandLineRunner {
+	
+	static final String MIGRATION_COLLECTION = "migration";
+	
+	static final String MIGRATION_ID = "ticket-recent-changes";
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private UserService userService;
+	
+	@Value("${helpdesk.ticket.history.embedded:true}")
+	private boolean embeddedHistory;
+	
+	@Value("${helpdesk.ticket.history.size:10}")
+	private int historySize;
+	
+	@Value("${helpdesk.ticket.history.migration-enabled:true}")
+	private boolean migrationEnabled;
+	
+	@Value("${helpdesk.ticket.history.migration-batch-size:500}")
+	private int batchSize;
+	
+	@Override
+	public void run(String... args) throws Exception {
+		if (!this.embeddedHistory || !this.migrationEnabled) {
+			return;
+		}
+		MongoCollection<Document> migrations = this.mongoTemplate.getCollection(MIGRATION_COLLECTION);
+		if (migrations.find(Filters.eq("_id", MIGRATION_ID)).first() != null) {
+			return;
+		}
+		MongoCollection<Document> tickets = this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Ticket.class));
+		MongoCollection<Document> changes = this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(ChangeStatus.class));
+		int migrated = 0;
+		List<Object> batch = new ArrayList<>(this.batchSize);
+		for (Document ticket : tickets.find(Filters.exists("recentChanges", false)).projection(Projections.include("_id")).batchSize(this.batchSize)) {
+			batch.add(ticket.get("_id"));
+			if (batch.size() == this.batchSize) {
+				migrated += migrate(tickets, changes, batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			migrated += migrate(tickets, changes, batch);
+		}
+		migrations.replaceOne(Filters.eq("_id", MIGRATION_ID), new Document("_id", MIGRATION_ID).append("date", new Date()),
+				new UpdateOptions().upsert(true));
+		logger.info("HelpDesk-API | recent status history embedded in " + migrated + " tickets, migration completed");
+	}
+	
+	/**
+	 * Lê o histórico de todos os tickets do lote em uma consulta e grava os históricos embutidos em uma única escrita em lote.
+	 */
+	private int migrate(MongoCollection<Document> tickets, MongoCollection<Document> changes, List<Object> ticketIds) {
+		Map<Object, List<Document>> recentByTicket = new LinkedHashMap<>();
+		ticketIds.forEach(ticketId -> recentByTicket.put(ticketId, new ArrayList<>()));
+		//Ordenado pelo índice ticket_dateChange: as mudanças mais recentes de cada ticket vêm primeiro
+		for (Document change : changes.find(Filters.in("ticket.$id", ticketIds))
+				.sort(Sorts.orderBy(Sorts.ascending("ticket.$id"), Sorts.descending("dateChange")))) {
+			List<Document> recent = recentByTicket.get(referenceKey(change.get("ticket")));
+			if (recent != null && recent.size() < this.historySize) {
+				recent.add(change);
+			}
+		}
+		Map<String, User> users = this.userService.findAllById(recentByTicket.values().stream()
+				.flatMap(List::stream)
+				.map(change -> referenceId(change.get("userChange")))
+				.collect(Collectors.toSet()));
+		
+		List<UpdateOneModel<Document>> updates = new ArrayList<>(ticketIds.size());
+		recentByTicket.forEach((ticketId, recent) -> {
+			List<Document> recentChanges = new ArrayList<>(recent.size());
+			for (Document change : recent) {
+				User userChange = users.get(referenceId(change.get("userChange")));
+				recentChanges.add(new Document("dateChange", change.getDate("dateChange"))
+						.append("status", change.getString("status"))
+						.append("userId", userChange != null ? userChange.getId() : null)
+						.append("userEmail", userChange != null ? userChange.getEmail() : null));
+			}
+			//Se o ticket recebeu uma mudança depois da leitura, o histórico embutido já existe e não é sobrescrito
+			updates.add(new UpdateOneModel<>(Filters.and(Filters.eq("_id", ticketId), Filters.exists("recentChanges", false)),
+					Updates.set("recentChanges", recentChanges)));
+		});
+		return tickets.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+	}
+	
+	private Object referenceKey(Object reference) {
+		if (reference instanceof DBRef) {
+			return ((DBRef) reference).getId();
+		} else if (reference instanceof Document) {
+			return ((Document) reference).get("$id");
+		}
+		return null;
+	}
+	
+	private String referenceId(Object reference) {
+		Object id = referenceKey(reference);
+		return id != null ? id.toString() : null;
+	}
+}
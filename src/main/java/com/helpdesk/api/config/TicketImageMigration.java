@@ -0,0 +1,52 @@
+package com.helpdesk.api.config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.service.AttachmentService;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+
+/**
+ * Move para o armazenamento de anexos as imagens que ainda estão gravadas dentro dos documentos de ticket.
+ *
+ */
+@Component
+public class TicketImageMigration implements CommandLineRunner {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private AttachmentService attachmentService;
+	
+	@Override
+	public void run(String... args) throws Exception {
+		MongoCollection<Document> tickets = this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Ticket.class));
+		int migrated = 0;
+		for (Document ticket : tickets.find(Filters.type("image", "string")).projection(Projections.include("image"))) {
+			String image = ticket.getString("image");
+			try {
+				String imageId = image.isEmpty() ? null : this.attachmentService.storeDataUrl(image);
+				tickets.updateOne(Filters.eq("_id", ticket.get("_id")),
+						imageId != null ? Updates.combine(Updates.set("imageId", imageId), Updates.unset("image")) : Updates.unset("image"));
+				migrated++;
+			} catch (IllegalArgumentException e) {
+				logger.warn("HelpDesk-API | image of ticket " + ticket.get("_id") + " could not be migrated: " + e.getMessage());
+			}
+		}
+		if (migrated > 0) {
+			logger.info("HelpDesk-API | " + migrated + " ticket images moved to the attachment store");
+		}
+	}
+}
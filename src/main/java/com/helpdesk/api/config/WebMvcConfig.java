@@ -0,0 +1,65 @@
+package com.helpdesk.api.config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.helpdesk.api.security.web.AuthenticatedUserArgumentResolver;
+import com.helpdesk.api.service.RequestExecutorService;
+
+/**
+ * Configurações do Spring MVC da aplicação.
+ *
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private RequestExecutorService requestExecutorService;
+	
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(new AuthenticatedUserArgumentResolver());
+	}
+	
+	/**
+	 * Os StreamingResponseBody rodam no pool da classe do endpoint, e a vaga da requisição volta quando o processamento
+	 * assíncrono termina, inclusive por timeout ou desconexão do cliente.
+	 */
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(this.requestExecutorService.streamExecutor());
+		configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+			@Override
+			public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) throws Exception {
+				requestExecutorService.release(request);
+			}
+		});
+	}
+	
+	/**
+	 * Devolve a vaga das requisições em que o processamento assíncrono nem chegou a começar.
+	 */
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+				requestExecutorService.release(new ServletRequestAttributes(request));
+			}
+		});
+	}
+}
@@ -0,0 +1,27 @@
+package com.helpdesk.api.controller;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.helpdesk.api.response.Response;
+
+/**
+ * Responde 503 quando o pool da classe do endpoint está cheio, indicando ao cliente quando tentar novamente.
+ *
+ */
+@RestControllerAdvice
+public class TaskRejectedExceptionHandler {
+
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<Response<String>> handleTaskRejected(TaskRejectedException e) {
+		Response<String> response = new Response<String>();
+		response.getErrors().add(e.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(response);
+	}
+}
@@ -1,15 +1,28 @@
 package com.helpdesk.api.controller;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
@@ -22,279 +35,575 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.helpdesk.api.dto.Attachment;
+import com.helpdesk.api.dto.CursorSlice;
 import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketImportReport;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.dto.TicketStatusResult;
 import com.helpdesk.api.entity.ChangeStatus;
 import com.helpdesk.api.entity.Ticket;
 import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.EndpointClassEnum;
+import com.helpdesk.api.enums.ExportFormatEnum;
 import com.helpdesk.api.enums.ProfileEnum;
 import com.helpdesk.api.enums.StatusEnum;
 import com.helpdesk.api.response.Response;
-import com.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.helpdesk.api.security.web.AuthenticatedUser;
+import com.helpdesk.api.service.AttachmentService;
+import com.helpdesk.api.service.RequestExecutorService;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketEventService;
+import com.helpdesk.api.service.TicketExportService;
+import com.helpdesk.api.service.TicketImportService;
+import com.helpdesk.api.service.TicketNumberService;
 import com.helpdesk.api.service.TicketService;
-import com.helpdesk.api.service.UserService;
 
 @RestController
 @RequestMapping("/api/ticket")
 @CrossOrigin(origins = "*")
 public class TicketController {
 
+	/**
+	 * Tipos de imagem exibidos no navegador. SVG fica de fora por poder conter scripts.
+	 */
+	private static final Set<String> INLINE_IMAGE_TYPES = new HashSet<>(Arrays.asList(
+			"image/png", "image/jpeg", "image/gif", "image/bmp", "image/webp"));
+	
 	@Autowired
 	private TicketService ticketService;
 	
 	@Autowired
-	protected JwtTokenUtil jwtTokenUtil;
+	private AttachmentService attachmentService;
+	
+	@Autowired
+	private TicketNumberService ticketNumberService;
+	
+	@Autowired
+	private TicketExportService ticketExportService;
+	
+	@Autowired
+	private TicketImportService ticketImportService;
+	
+	@Autowired
+	private TicketEventService ticketEventService;
+	
+	@Autowired
+	private RequestExecutorService requestExecutorService;
 	
 	@Autowired
-	private UserService userService;
+	private RevisionService revisionService;
 	
 	@PostMapping
 	@PreAuthorize("hasAnyRole('CUSTOMER')")
-	public ResponseEntity<?> create(HttpServletRequest request, @RequestBody Ticket ticket, BindingResult result) {
-		Response<Ticket> response = new Response<Ticket>();
-		
-		try {
-			validateCreateTicket(ticket, result);
-			if(result.hasErrors()) {
-				result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+	public WebAsyncTask<ResponseEntity<?>> create(@AuthenticatedUser User userRequest, @RequestBody Ticket ticket, BindingResult result) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<Ticket> response = new Response<Ticket>();
+			
+			try {
+				validateCreateTicket(ticket, result);
+				if(result.hasErrors()) {
+					result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+					return ResponseEntity.badRequest().body(response);
+				} 
+				
+				ticket.setStatus(StatusEnum.getStatus("New"));
+				ticket.setUser(userRequest);
+				ticket.setDate(new Date());
+				ticket.setNumber(this.ticketNumberService.nextNumber());
+				Ticket ticketPersisted = this.ticketService.createOrUpdate(ticket);
+				response.setData(ticketPersisted);
+			} catch (Exception e) {
+				response.getErrors().add(e.getMessage());
 				return ResponseEntity.badRequest().body(response);
-			} 
+			}
 			
-			ticket.setStatus(StatusEnum.getStatus("New"));
-			ticket.setUser(this.userFromRequest(request));
-			ticket.setDate(new Date());
-			ticket.setNumber(this.generateNumber());
-			Ticket ticketPersisted = this.ticketService.createOrUpdate(ticket);
-			response.setData(ticketPersisted);
-		} catch (Exception e) {
-			response.getErrors().add(e.getMessage());
-			return ResponseEntity.badRequest().body(response);
-		}
-		
-		return ResponseEntity.ok(response);
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	/**
+	 * Importação em lote de tickets de outras ferramentas. O corpo pode ser um array JSON ou NDJSON (um ticket por linha);
+	 * o usuário de cada ticket é informado pelo id ou pelo email.
+	 */
+	@PostMapping(value = "import", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+	@PreAuthorize("hasAnyRole('ADMIN')")
+	public WebAsyncTask<ResponseEntity<Response<TicketImportReport>>> importTickets(HttpServletRequest request) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<TicketImportReport> response = new Response<TicketImportReport>();
+			try {
+				response.setData(this.ticketImportService.importTickets(request.getInputStream()));
+			} catch (Exception e) {
+				response.getErrors().add(e.getMessage());
+				return ResponseEntity.badRequest().body(response);
+			}
+			return ResponseEntity.ok(response);
+		});
 	}
 	
 	@PutMapping
 	@PreAuthorize("hasAnyRole('CUSTOMER')")
-	public ResponseEntity<?> update(HttpServletRequest request, @RequestBody Ticket ticket, BindingResult result) {
-		Response<Ticket> response = new Response<Ticket>();
-		try {
-			validateUpdateTicket(ticket, result);
-			if (result.hasErrors()) {
-				result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+	public WebAsyncTask<ResponseEntity<?>> update(HttpServletRequest request, @RequestBody Ticket ticket, BindingResult result) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<Ticket> response = new Response<Ticket>();
+			try {
+				validateUpdateTicket(ticket, result);
+				if (result.hasErrors()) {
+					result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+					return ResponseEntity.badRequest().body(response);
+				}
+				
+				//Apenas os campos editáveis são alterados; a versão enviada impede sobrescrever alterações de outro usuário
+				response.setData(this.ticketService.update(ticket));
+			} catch (OptimisticLockingFailureException e) {
+				response.getErrors().add(e.getMessage());
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+			} catch (Exception e) {
+				response.getErrors().add(e.getMessage());
 				return ResponseEntity.badRequest().body(response);
 			}
 			
-			Ticket ticketCurrent = this.ticketService.findById(ticket.getId());
-			ticket.setStatus(ticketCurrent.getStatus());
-			ticket.setUser(ticketCurrent.getUser());
-			ticket.setDate(ticketCurrent.getDate());
-			ticket.setNumber(ticketCurrent.getNumber());
-			if (ticketCurrent.getAssigneUser() != null) {
-				ticket.setAssigneUser(ticketCurrent.getAssigneUser());
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	@GetMapping(value = "{id}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<?>> findById(@PathVariable("id") String id, WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			Response<Ticket> response = new Response<Ticket>();
+			//A versão é lida antes do ticket: se o cliente já tem a versão atual, nada mais é consultado
+			Ticket version = this.ticketService.findVersion(id);
+			if (version != null && webRequest.checkNotModified(detailETag(version),
+					version.getLastModified() != null ? version.getLastModified().getTime() : -1)) {
+				return null;
+			}
+			Ticket ticket = version != null ? this.ticketService.findDetail(id) : null;
+			
+			if(ticket == null) {
+				response.getErrors().add("Register not found Id: " + id);
+				return ResponseEntity.badRequest().body(response);
 			}
 			
-			Ticket ticketPersisted = this.ticketService.createOrUpdate(ticket);
-			response.setData(ticketPersisted);
-		} catch (Exception e) {
-			response.getErrors().add(e.getMessage());
-			return ResponseEntity.badRequest().body(response);
-		}
-		
-		return ResponseEntity.ok(response);
+			response.setData(ticket);
+			
+			return ResponseEntity.ok(response);
+		});
 	}
 	
-	@GetMapping(value = "{id}")
+	@GetMapping(value = "{id}/changes")
 	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
-	public ResponseEntity<?> findById(@PathVariable("id") String id) {
-		Response<Ticket> response = new Response<Ticket>();
-		Ticket ticket = this.ticketService.findById(id);
-		
-		if(ticket == null) {
-			response.getErrors().add("Register not found Id: " + id);
-			return ResponseEntity.badRequest().body(response);
-		}
-		
-		List<ChangeStatus> changes = new ArrayList<>();
-		Iterable<ChangeStatus> changesCurrent = this.ticketService.listChangeStatus(ticket.getId());
-		for (Iterator<ChangeStatus> iterator = changesCurrent.iterator(); iterator.hasNext();) {
-			ChangeStatus changeStatus = (ChangeStatus) iterator.next();
-			changeStatus.setTicket(null);
-			changes.add(changeStatus);
-		}
-		
-		ticket.setChanges(changes);
-		response.setData(ticket);
-		
-		return ResponseEntity.ok(response);
+	public WebAsyncTask<ResponseEntity<Response<List<ChangeStatus>>>> findChanges(@PathVariable("id") String id) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			Response<List<ChangeStatus>> response = new Response<List<ChangeStatus>>();
+			response.setData(this.ticketService.listChangeStatus(id));
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	@GetMapping(value = "{id}/image")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Resource>> findImage(@PathVariable("id") String id, WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			String imageId = this.ticketService.findImageId(id);
+			if (imageId == null) {
+				return ResponseEntity.notFound().build();
+			}
+			
+			//Os anexos não são alterados, apenas substituídos por um novo id, então o id serve como ETag forte
+			String etag = "\"" + imageId + "\"";
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
+			Attachment image = this.attachmentService.findById(imageId);
+			if (image == null) {
+				return ResponseEntity.notFound().build();
+			}
+			
+			//O tipo vem do cliente que enviou o anexo: só imagens conhecidas são exibidas no navegador, o resto é baixado como arquivo
+			boolean inline = INLINE_IMAGE_TYPES.contains(image.getContentType().toLowerCase());
+			//Requisições com o header Range são respondidas com 206 a partir do Resource
+			return ResponseEntity.ok()
+					.eTag(etag)
+					.cacheControl(CacheControl.noCache().cachePrivate())
+					.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+					.header(HttpHeaders.CONTENT_DISPOSITION, inline ? "inline" : "attachment")
+					.header("X-Content-Type-Options", "nosniff")
+					.contentType(inline ? MediaType.parseMediaType(image.getContentType()) : MediaType.APPLICATION_OCTET_STREAM)
+					.body(image.getContent());
+		});
 	}
 	
 	@DeleteMapping(value = "{id}")
 	@PreAuthorize("hasAnyRole('CUSTOMER')")
-	public ResponseEntity<?> delete(@PathVariable("id") String id) {
-		Response<String> response = new Response<String>();
-		Ticket ticket = this.ticketService.findById(id);
-		
-		if(ticket == null) {
-			response.getErrors().add("Register not found Id: " + id);
-			return ResponseEntity.badRequest().body(response);
-		}
-		
-		this.ticketService.delete(ticket);
-		return ResponseEntity.ok(new Response<String>());
+	public WebAsyncTask<ResponseEntity<?>> delete(@PathVariable("id") String id) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<String> response = new Response<String>();
+			Ticket ticket = this.ticketService.delete(id);
+			
+			if(ticket == null) {
+				response.getErrors().add("Register not found Id: " + id);
+				return ResponseEntity.badRequest().body(response);
+			}
+			
+			return ResponseEntity.ok(new Response<String>());
+		});
 	}
 	
 	@GetMapping(value = "{page}/{count}")
 	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
-	public ResponseEntity<Response<Page<Ticket>>> findAll(HttpServletRequest request, @PathVariable("page") int page, @PathVariable("count") int count) {
-		Response<Page<Ticket>> response = new Response<Page<Ticket>>();
-		Page<Ticket> tickets = null;
-		
-		User userRequest = userFromRequest(request);
-		if (userRequest.getProfile().equals(ProfileEnum.ROLE_TECHNICIAN)) {
-			tickets = this.ticketService.listTicket(page, count);
-		} else if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
-			tickets = this.ticketService.findByCurrentUser(page, count, userRequest.getId());
-		} 
-		
-		response.setData(tickets);
-		return ResponseEntity.ok(response);
+	public ResponseEntity<StreamingResponseBody> findAll(@AuthenticatedUser User userRequest, @PathVariable("page") int page, @PathVariable("count") int count, 
+			WebRequest webRequest) {
+		//O ETag é conferido antes de abrir o stream, que só é iniciado quando a página realmente precisa ser enviada
+		if (webRequest.checkNotModified(listETag(userRequest))) {
+			return null;
+		}
+		TicketFilter filter = new TicketFilter();
+		boolean customer = userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER);
+		//O cliente lista apenas os próprios tickets, do mais recente para o mais antigo
+		if (customer) {
+			filter.setUserId(userRequest.getId());
+		}
+		Pageable pages = customer ? PageRequest.of(page, count, Sort.by(Direction.DESC, "date")) : PageRequest.of(page, count);
+			
+		//A página é escrita direto do cursor do Mongo, no mesmo JSON de Response<Page<TicketItem>>, e conta no limite das consultas até o fim da escrita
+		StreamingResponseBody body = this.requestExecutorService.stream(EndpointClassEnum.Query,
+				out -> this.ticketExportService.writePage(filter, pages, out));
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(body);
 	}
 	
 	@GetMapping(value = "{page}/{count}/{number}/{title}/{status}/{priority}/{assigned}")
 	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
-	public ResponseEntity<Response<Page<Ticket>>> findByParams(HttpServletRequest request, 
+	public WebAsyncTask<ResponseEntity<Response<Page<TicketItem>>>> findByParams(@AuthenticatedUser User userRequest, 
 			@PathVariable("page") int page, 
 			@PathVariable("count") int count, 
 			@PathVariable("number") Integer number, 
 			@PathVariable("title") String title, 
 			@PathVariable("status") String status, 
 			@PathVariable("priority") String priority, 
-			@PathVariable("assigned") boolean assigned) {
+			@PathVariable("assigned") boolean assigned,
+			WebRequest webRequest) {
 		
 		//Quando não se quiser informar um dos campos abaixo basta usar uninformed na url
-		title = title.equals("uninformed") ? "" : title;
-		status = status.equals("uninformed") ? "" : status;
-		priority = title.equals("uninformed") ? "" : priority;
+		final String titleFilter = title.equals("uninformed") ? "" : title;
+		final String statusFilter = status.equals("uninformed") ? "" : status;
+		final String priorityFilter = titleFilter.equals("uninformed") ? "" : priority;
 		
-		Response<Page<Ticket>> response = new Response<Page<Ticket>>();
-		Page<Ticket> tickets = null;
-		
-		if (number > 0) {
-			tickets = this.ticketService.findByNumber(page, count, number);
-		} else {
-			User userRequest = userFromRequest(request);
-			if (userRequest.getProfile().equals(ProfileEnum.ROLE_TECHNICIAN)) {
-				if (assigned) {
-					tickets = this.ticketService.findByParametersAndAssignedUser(page, count, title, status, priority, userRequest.getId());
-				} else {
-					tickets = this.ticketService.findByParameters(page, count, title, status, priority);
-				}
-			} else if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
-				tickets = this.ticketService.findByParametersAndCurrentUser(page, count, title, status, priority, userRequest.getId());
-			} 
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			if (webRequest.checkNotModified(listETag(userRequest))) {
+				return null;
+			}
+			Response<Page<TicketItem>> response = new Response<Page<TicketItem>>();
+			Page<TicketItem> tickets = null;
+			
+			if (number > 0) {
+				tickets = this.ticketService.findByNumber(page, count, number);
+			} else {
+				if (userRequest.getProfile().equals(ProfileEnum.ROLE_TECHNICIAN)) {
+					if (assigned) {
+						tickets = this.ticketService.findByParametersAndAssignedUser(page, count, titleFilter, statusFilter, priorityFilter, userRequest.getId());
+					} else {
+						tickets = this.ticketService.findByParameters(page, count, titleFilter, statusFilter, priorityFilter);
+					}
+				} else if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
+					tickets = this.ticketService.findByParametersAndCurrentUser(page, count, titleFilter, statusFilter, priorityFilter, userRequest.getId());
+				} 
+			}
+			
+			response.setData(tickets);
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	@GetMapping(value = "cursor/{count}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Response<CursorSlice<TicketItem>>>> findAllByCursor(@AuthenticatedUser User userRequest, 
+			@PathVariable("count") int count, 
+			@RequestParam(value = "cursor", required = false) String cursor,
+			WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			if (webRequest.checkNotModified(listETag(userRequest))) {
+				return null;
+			}
+			TicketFilter filter = new TicketFilter();
+			if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
+				filter.setUserId(userRequest.getId());
+			}
+			return findByCursor(filter, cursor, count);
+		});
+	}
+	
+	@GetMapping(value = "cursor/{count}/{title}/{status}/{priority}/{assigned}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Response<CursorSlice<TicketItem>>>> findByParamsAndCursor(@AuthenticatedUser User userRequest, 
+			@PathVariable("count") int count, 
+			@PathVariable("title") String title, 
+			@PathVariable("status") String status, 
+			@PathVariable("priority") String priority, 
+			@PathVariable("assigned") boolean assigned,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Query, () -> {
+			if (webRequest.checkNotModified(listETag(userRequest))) {
+				return null;
+			}
+			//Quando não se quiser informar um dos campos abaixo basta usar uninformed na url
+			TicketFilter filter = new TicketFilter()
+					.setTitle(title.equals("uninformed") ? null : title)
+					.setStatus(status.equals("uninformed") ? null : status)
+					.setPriority(priority.equals("uninformed") ? null : priority);
+			if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
+				filter.setUserId(userRequest.getId());
+			} else if (assigned) {
+				filter.setAssigneUserId(userRequest.getId());
+			}
+			return findByCursor(filter, cursor, count);
+		});
+	}
+	
+	private ResponseEntity<Response<CursorSlice<TicketItem>>> findByCursor(TicketFilter filter, String cursor, int count) {
+		Response<CursorSlice<TicketItem>> response = new Response<CursorSlice<TicketItem>>();
+		try {
+			response.setData(this.ticketService.findByCursor(filter, cursor, count));
+		} catch (IllegalArgumentException e) {
+			response.getErrors().add(e.getMessage());
+			return ResponseEntity.badRequest().body(response);
 		}
-		
-		response.setData(tickets);
 		return ResponseEntity.ok(response);
 	}
 	
+	@GetMapping(value = "search/{page}/{count}/{text}/{status}/{priority}/{assigned}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public ResponseEntity<StreamingResponseBody> search(@AuthenticatedUser User userRequest, 
+			@PathVariable("page") int page, 
+			@PathVariable("count") int count, 
+			@PathVariable("text") String text, 
+			@PathVariable("status") String status, 
+			@PathVariable("priority") String priority, 
+			@PathVariable("assigned") boolean assigned,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(listETag(userRequest))) {
+			return null;
+		}
+		//Quando não se quiser informar um dos filtros basta usar uninformed na url
+		TicketFilter filter = new TicketFilter()
+				.setStatus(status.equals("uninformed") ? null : status)
+				.setPriority(priority.equals("uninformed") ? null : priority);
+		if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
+			filter.setUserId(userRequest.getId());
+		} else if (assigned) {
+			filter.setAssigneUserId(userRequest.getId());
+		}
+			
+		//Mesma escrita da listagem, direto do cursor da busca textual
+		StreamingResponseBody body = this.requestExecutorService.stream(EndpointClassEnum.Query,
+				out -> this.ticketExportService.writeSearchPage(text, filter, PageRequest.of(page, count), out));
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(body);
+	}
+	
 	@PutMapping(value = "{id}/{status}")
 	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
-	public ResponseEntity<Response<Ticket>> changeStatus(
-			HttpServletRequest request, 
+	public WebAsyncTask<ResponseEntity<Response<Ticket>>> changeStatus(
+			@AuthenticatedUser User userRequest, 
 			@PathVariable("id") String id, 
 			@PathVariable("status") String status,
 			@RequestBody Ticket ticket,
 			BindingResult result) {
-		
-		Response<Ticket> response = new Response<Ticket>();
-		try {
-			this.validateChangeStatusTicket(id, status, result);
-			if(result.hasErrors()) {
-				result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<Ticket> response = new Response<Ticket>();
+			try {
+				this.validateChangeStatusTicket(id, status, result);
+				if(result.hasErrors()) {
+					result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
+					return ResponseEntity.badRequest().body(response);
+				} 
+				Ticket ticketPersisted = this.ticketService.changeStatus(id, StatusEnum.getStatus(status), userRequest, 
+						ticket != null ? ticket.getVersion() : null);
+				response.setData(ticketPersisted);
+			} catch (OptimisticLockingFailureException e) {
+				response.getErrors().add(e.getMessage());
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+			} catch (Exception e) {
+				response.getErrors().add(e.getMessage());
 				return ResponseEntity.badRequest().body(response);
-			} 
-			Ticket ticketCurrent = this.ticketService.findById(id);
-			ticketCurrent.setStatus(StatusEnum.getStatus(status));
-			
-			if (status.equals("Assigned")) {
-				ticketCurrent.setAssigneUser(userFromRequest(request));
 			}
 			
-			Ticket ticketPersisted = this.ticketService.createOrUpdate(ticketCurrent);
-			ChangeStatus changeStatus = new ChangeStatus();
-			changeStatus.setUserChange(userFromRequest(request));
-			changeStatus.setDateChange(new Date());
-			changeStatus.setStatus(StatusEnum.getStatus(status));
-			changeStatus.setTicket(ticketPersisted);
-			
-			this.ticketService.createChangeStatus(changeStatus);
-			response.setData(ticketPersisted);
-		} catch (Exception e) {
-			response.getErrors().add(e.getMessage());
-			return ResponseEntity.badRequest().body(response);
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	/**
+	 * Altera o status de vários tickets de uma vez. O corpo é a lista de ids e a resposta traz o resultado de cada um.
+	 */
+	@PutMapping(value = "batch/{status}")
+	@PreAuthorize("hasAnyRole('TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Response<List<TicketStatusResult>>>> changeStatusBatch(
+			@AuthenticatedUser User userRequest, 
+			@PathVariable("status") String status,
+			@RequestBody List<String> ids) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Write, () -> {
+			Response<List<TicketStatusResult>> response = new Response<List<TicketStatusResult>>();
+			if (ids == null || ids.isEmpty()) {
+				response.getErrors().add("Ids no information");
+				return ResponseEntity.badRequest().body(response);
+			}
+			if (!StatusEnum.isStatus(status)) {
+				response.getErrors().add("Invalid status: " + status);
+				return ResponseEntity.badRequest().body(response);
+			}
+			try {
+				response.setData(this.ticketService.changeStatus(ids, StatusEnum.getStatus(status), userRequest));
+			} catch (Exception e) {
+				response.getErrors().add(e.getMessage());
+				return ResponseEntity.badRequest().body(response);
+			}
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	/**
+	 * Stream SSE com as alterações de tickets para os painéis, substituindo a consulta periódica do resumo e das listas.
+	 * O técnico pode receber apenas os tickets atribuídos a ele com {@code assigned=true}.
+	 */
+	@GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public ResponseEntity<SseEmitter> events(@AuthenticatedUser User userRequest, 
+			@RequestParam(value = "assigned", defaultValue = "false") boolean assigned) {
+		try {
+			return ResponseEntity.ok(this.ticketEventService.subscribe(userRequest, assigned));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
 		}
-		
-		return ResponseEntity.ok(response);
 	}
 	
 	@GetMapping(value = "/sumary")
-	public ResponseEntity<Response<Summary>> findSumary() {
-		Response<Summary> response = new Response<Summary>();
-		Summary summary = new Summary();
-		int amountNew = 0;
-		int amountResolved = 0;
-		int amountApproved = 0;
-		int amountDisapproved = 0;
-		int amountAssigned = 0;
-		int amountClosed = 0;
-		
-		Iterable<Ticket> tickets = this.ticketService.findAll();
-		if (tickets != null) {
-			for (Iterator<Ticket> iterator = tickets.iterator(); iterator.hasNext();) {
-				Ticket ticket = iterator.next();
-				if (ticket.getStatus().equals(StatusEnum.New)) {
-					amountNew++;
-				}
-				if (ticket.getStatus().equals(StatusEnum.Resolved)) {
-					amountResolved++;
-				}
-				if (ticket.getStatus().equals(StatusEnum.Approved)) {
-					amountApproved++;
-				}
-				if (ticket.getStatus().equals(StatusEnum.Disaproved)) {
-					amountDisapproved++;
-				}
-				if (ticket.getStatus().equals(StatusEnum.Assigned)) {
-					amountAssigned++;
-				}
-				if (ticket.getStatus().equals(StatusEnum.Closed)) {
-					amountClosed++;
-				}
+	public WebAsyncTask<ResponseEntity<Response<Summary>>> findSumary(WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Report, () -> {
+			if (webRequest.checkNotModified(summaryETag())) {
+				return null;
 			}
+			Response<Summary> response = new Response<Summary>();
+			response.setData(this.ticketService.findSummary());
+			return ResponseEntity.ok(response);
+		});
+	}
+
+	/**
+	 * Recalcula os contadores dos resumos a partir dos tickets. Também é feito diariamente (helpdesk.ticket.counters.rebuild-cron).
+	 */
+	@PostMapping(value = "/sumary/rebuild")
+	@PreAuthorize("hasAnyRole('ADMIN')")
+	public WebAsyncTask<ResponseEntity<Response<Summary>>> rebuildSumary() {
+		return this.requestExecutorService.submit(EndpointClassEnum.Report, () -> {
+			Response<Summary> response = new Response<Summary>();
+			response.setData(this.ticketService.rebuildSummary());
+			return ResponseEntity.ok(response);
+		});
+	}
+
+	@GetMapping(value = "/sumary/user/{userId}")
+	@PreAuthorize("hasAnyRole('TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Response<Summary>>> findSumaryByUser(@PathVariable("userId") String userId, WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Report, () -> {
+			if (webRequest.checkNotModified(summaryETag())) {
+				return null;
+			}
+			Response<Summary> response = new Response<Summary>();
+			response.setData(this.ticketService.findSummaryByUser(userId));
+			return ResponseEntity.ok(response);
+		});
+	}
+
+	@GetMapping(value = "/sumary/assigned/{userId}")
+	@PreAuthorize("hasAnyRole('TECHNICIAN')")
+	public WebAsyncTask<ResponseEntity<Response<Summary>>> findSumaryByAssignedUser(@PathVariable("userId") String userId, WebRequest webRequest) {
+		return this.requestExecutorService.submit(EndpointClassEnum.Report, () -> {
+			if (webRequest.checkNotModified(summaryETag())) {
+				return null;
+			}
+			Response<Summary> response = new Response<Summary>();
+			response.setData(this.ticketService.findSummaryByAssignedUser(userId));
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	/**
+	 * Exporta os tickets do filtro em NDJSON ou CSV, escrevendo direto do cursor do Mongo na resposta.
+	 * As datas são informadas no formato yyyy-MM-dd, sendo {@code from} inclusive e {@code to} exclusive.
+	 */
+	@GetMapping(value = "export/{format}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public ResponseEntity<?> export(@AuthenticatedUser User userRequest, 
+			@PathVariable("format") String format,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestParam(value = "priority", required = false) String priority,
+			@RequestParam(value = "userId", required = false) String userId,
+			@RequestParam(value = "assigneUserId", required = false) String assigneUserId,
+			@RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) Date from,
+			@RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) Date to) {
+		
+		ExportFormatEnum exportFormat;
+		try {
+			exportFormat = ExportFormatEnum.getFormat(format);
+		} catch (IllegalArgumentException e) {
+			Response<String> response = new Response<String>();
+			response.getErrors().add(e.getMessage());
+			return ResponseEntity.badRequest().body(response);
 		}
 		
-		summary.setAmountNew(amountNew);
-		summary.setAmountResolved(amountResolved);
-		summary.setAmountApproved(amountApproved);
-		summary.setAmountDisapproved(amountDisapproved);
-		summary.setAmountAssigned(amountAssigned);
-		summary.setAmountClosed(amountClosed);
-		response.setData(summary);
-		return ResponseEntity.ok(response);
+		TicketFilter filter = new TicketFilter()
+				.setStatus(status)
+				.setPriority(priority)
+				.setAssigneUserId(assigneUserId)
+				.setDateFrom(from)
+				.setDateTo(to);
+		//O cliente exporta apenas os próprios tickets
+		filter.setUserId(userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER) ? userRequest.getId() : userId);
+		
+		//A exportação conta no limite dos relatórios até o fim da escrita
+		StreamingResponseBody body = this.requestExecutorService.stream(EndpointClassEnum.Report,
+				out -> this.ticketExportService.export(filter, exportFormat, out));
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets." + exportFormat.getExtension() + "\"")
+				.body(body);
 	}
 
-	private Integer generateNumber() {
-		Random random = new Random();
-		return random.nextInt(9999);
+	/**
+	 * ETag do detalhe: muda a cada alteração do ticket e a cada escrita em usuários, que aparecem no ticket e no histórico.
+	 */
+	private String detailETag(Ticket version) {
+		return "\"" + version.getId() + "." + (version.getVersion() != null ? version.getVersion() : 0)
+				+ "." + (version.getLastModified() != null ? version.getLastModified().getTime() : 0)
+				+ "." + this.revisionService.current(RevisionService.USER).get(RevisionService.USER) + "\"";
 	}
-
-	private User userFromRequest(HttpServletRequest request) {
-		String token = request.getHeader("Authorization");
-		String email = jwtTokenUtil.getUserNameFromToken(token);
-		return this.userService.findByEmail(email);
+	
+	/**
+	 * ETag das listagens: muda a cada escrita em tickets ou usuários e é diferente para cada usuário,
+	 * já que clientes e técnicos recebem tickets diferentes na mesma url.
+	 */
+	private String listETag(User userRequest) {
+		Map<String, Long> revisions = this.revisionService.current(RevisionService.TICKET, RevisionService.USER);
+		return "\"" + revisions.get(RevisionService.TICKET) + "." + revisions.get(RevisionService.USER) + "." + userRequest.getId() + "\"";
+	}
+	
+	/**
+	 * ETag dos resumos: os contadores só mudam com escritas em tickets.
+	 */
+	private String summaryETag() {
+		return "\"" + this.revisionService.current(RevisionService.TICKET).get(RevisionService.TICKET) + "\"";
 	}
 
 	private void validateCreateTicket(Ticket ticket, BindingResult result) {
@@ -321,6 +630,10 @@ public class TicketController {
 			result.addError(new ObjectError("Ticket", "Status no information"));
 			return;
 		}
+		if(!StatusEnum.isStatus(status)) {
+			result.addError(new ObjectError("Ticket", "Invalid status: " + status));
+			return;
+		}
 	}
 
 }
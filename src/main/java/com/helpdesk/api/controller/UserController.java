@@ -1,5 +1,7 @@
 package com.helpdesk.api.controller;
 
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.helpdesk.api.dto.CacheStatistics;
 import com.helpdesk.api.entity.User;
 import com.helpdesk.api.response.Response;
 import com.helpdesk.api.service.UserService;
@@ -128,6 +131,14 @@ public class UserController {
 		return ResponseEntity.ok(new Response<String>());
 	}
 	
+	@GetMapping(value = "cache")
+	@PreAuthorize("hasAnyRole('ADMIN')")//Estatísticas de acerto e erro do cache de usuários.
+	public ResponseEntity<Response<Map<String, CacheStatistics>>> cacheStatistics() {
+		Response<Map<String, CacheStatistics>> response = new Response<Map<String, CacheStatistics>>();
+		response.setData(this.userService.cacheStatistics());
+		return ResponseEntity.ok(response);
+	}
+	
 	@GetMapping(value = "{page}/{count}")
 	@PreAuthorize("hasAnyRole('ADMIN')")//Autorização com base no perfil. Nesse caso apenas ADMIN podem consultar usuários.
 	public ResponseEntity<Response<Page<User>>> findAll(@PathVariable int page, @PathVariable int count) {
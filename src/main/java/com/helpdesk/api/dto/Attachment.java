@@ -0,0 +1,38 @@
+package com.helpdesk.api.dto;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Arquivo anexado a um ticket, com o conteúdo disponível para leitura em stream.
+ *
+ */
+public class Attachment {
+
+	private final String id;
+	private final String contentType;
+	private final long length;
+	private final Resource content;
+	
+	public Attachment(String id, String contentType, long length, Resource content) {
+		this.id = id;
+		this.contentType = contentType;
+		this.length = length;
+		this.content = content;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public Resource getContent() {
+		return content;
+	}
+}
@@ -0,0 +1,59 @@
+package com.helpdesk.api.dto;
+
+import java.io.Serializable;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatistics implements Serializable {
+
+	private static final long serialVersionUID = -3125318000468393624L;
+
+	private long size;
+	private long hitCount;
+	private long missCount;
+	private double hitRate;
+	private long evictionCount;
+	
+	public CacheStatistics() {
+	}
+	
+	public CacheStatistics(long size, CacheStats stats) {
+		this.size = size;
+		this.hitCount = stats.hitCount();
+		this.missCount = stats.missCount();
+		this.hitRate = stats.hitRate();
+		this.evictionCount = stats.evictionCount();
+	}
+	
+	public long getSize() {
+		return size;
+	}
+	public void setSize(long size) {
+		this.size = size;
+	}
+	public long getHitCount() {
+		return hitCount;
+	}
+	public void setHitCount(long hitCount) {
+		this.hitCount = hitCount;
+	}
+	public long getMissCount() {
+		return missCount;
+	}
+	public void setMissCount(long missCount) {
+		this.missCount = missCount;
+	}
+	public double getHitRate() {
+		return hitRate;
+	}
+	public void setHitRate(double hitRate) {
+		this.hitRate = hitRate;
+	}
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+	public void setEvictionCount(long evictionCount) {
+		this.evictionCount = evictionCount;
+	}
+	
+}
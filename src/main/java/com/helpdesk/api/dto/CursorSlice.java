@@ -0,0 +1,51 @@
+package com.helpdesk.api.dto;
+
+import java.util.List;
+
+/**
+ * Fatia de uma consulta paginada por cursor. Não traz o total de registros, apenas o cursor para a próxima fatia.
+ *
+ * @param <T>
+ */
+public class CursorSlice<T> {
+
+	private List<T> content;
+	
+	private String cursor;
+	
+	private boolean hasNext;
+	
+	public CursorSlice(List<T> content, String cursor, boolean hasNext) {
+		this.content = content;
+		this.cursor = cursor;
+		this.hasNext = hasNext;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+
+	/**
+	 * Cursor opaco a ser enviado na próxima requisição, ou null quando não há mais registros.
+	 * @return
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+}
@@ -2,6 +2,9 @@ package com.helpdesk.api.dto;
 
 import java.io.Serializable;
 
+import com.helpdesk.api.entity.TicketCounter;
+import com.helpdesk.api.enums.StatusEnum;
+
 public class Summary implements Serializable {
 
 	private static final long serialVersionUID = 6868064916301562208L;
@@ -12,6 +15,28 @@ public class Summary implements Serializable {
 	public Integer amountDisapproved;
 	public Integer amountAssigned;
 	public Integer amountClosed;
+	
+	/**
+	 * Monta o resumo a partir dos contadores de um escopo. Escopos sem contador têm todas as quantidades zeradas.
+	 * @param counter
+	 * @return
+	 */
+	public static Summary of(TicketCounter counter) {
+		Summary summary = new Summary();
+		summary.setAmountNew(amount(counter, StatusEnum.New));
+		summary.setAmountResolved(amount(counter, StatusEnum.Resolved));
+		summary.setAmountApproved(amount(counter, StatusEnum.Approved));
+		summary.setAmountDisapproved(amount(counter, StatusEnum.Disaproved));
+		summary.setAmountAssigned(amount(counter, StatusEnum.Assigned));
+		summary.setAmountClosed(amount(counter, StatusEnum.Closed));
+		return summary;
+	}
+	
+	private static Integer amount(TicketCounter counter, StatusEnum status) {
+		Long amount = counter != null ? counter.getAmounts().get(status.name()) : null;
+		return amount != null ? amount.intValue() : 0;
+	}
+	
 	public Integer getAmountNew() {
 		return amountNew;
 	}
@@ -0,0 +1,113 @@
+package com.helpdesk.api.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.enums.TicketEventEnum;
+import com.helpdesk.api.util.ReferenceUtil;
+
+/**
+ * Alteração de um ticket publicada pelo TicketService e enviada aos painéis conectados.
+ * O status anterior permite que o painel ajuste o resumo sem consultar o servidor.
+ * O técnico que deixou o ticket numa reatribuição também recebe o evento, pelo responsável anterior.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+public class TicketEvent {
+	
+	private TicketEventEnum type;
+	
+	private TicketItem ticket;
+	
+	private StatusEnum previousStatus;
+	
+	private Date date;
+	
+	@JsonIgnore
+	private String userId;
+	
+	@JsonIgnore
+	private String assigneUserId;
+	
+	@JsonIgnore
+	private String previousAssigneUserId;
+	
+	public static TicketEvent of(TicketEventEnum type, Ticket ticket, StatusEnum previousStatus, Map<String, User> users) {
+		return of(type, ticket, previousStatus, ReferenceUtil.idOf(ticket.getAssigneUser()), users);
+	}
+	
+	public static TicketEvent of(TicketEventEnum type, Ticket ticket, StatusEnum previousStatus, String previousAssigneUserId,
+			Map<String, User> users) {
+		TicketEvent event = new TicketEvent();
+		event.setType(type);
+		event.setTicket(TicketItem.of(ticket, users));
+		event.setPreviousStatus(previousStatus);
+		event.setDate(new Date());
+		event.setUserId(ReferenceUtil.idOf(ticket.getUser()));
+		event.setAssigneUserId(ReferenceUtil.idOf(ticket.getAssigneUser()));
+		event.setPreviousAssigneUserId(previousAssigneUserId);
+		return event;
+	}
+	
+	public TicketEventEnum getType() {
+		return type;
+	}
+	
+	public void setType(TicketEventEnum type) {
+		this.type = type;
+	}
+	
+	public TicketItem getTicket() {
+		return ticket;
+	}
+	
+	public void setTicket(TicketItem ticket) {
+		this.ticket = ticket;
+	}
+	
+	public StatusEnum getPreviousStatus() {
+		return previousStatus;
+	}
+	
+	public void setPreviousStatus(StatusEnum previousStatus) {
+		this.previousStatus = previousStatus;
+	}
+	
+	public Date getDate() {
+		return date;
+	}
+	
+	public void setDate(Date date) {
+		this.date = date;
+	}
+	
+	public String getUserId() {
+		return userId;
+	}
+	
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+	
+	public String getAssigneUserId() {
+		return assigneUserId;
+	}
+	
+	public void setAssigneUserId(String assigneUserId) {
+		this.assigneUserId = assigneUserId;
+	}
+	
+	public String getPreviousAssigneUserId() {
+		return previousAssigneUserId;
+	}
+	
+	public void setPreviousAssigneUserId(String previousAssigneUserId) {
+		this.previousAssigneUserId = previousAssigneUserId;
+	}
+}
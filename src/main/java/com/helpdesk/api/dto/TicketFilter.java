@@ -0,0 +1,75 @@
+package com.helpdesk.api.dto;
+
+import java.util.Date;
+
+/**
+ * Filtros das consultas de tickets. Campos nulos ou vazios não são considerados.
+ *
+ */
+public class TicketFilter {
+
+	private String title;
+	private String status;
+	private String priority;
+	private String userId;
+	private String assigneUserId;
+	private Date dateFrom;
+	private Date dateTo;
+	
+	public String getTitle() {
+		return title;
+	}
+	public TicketFilter setTitle(String title) {
+		this.title = title;
+		return this;
+	}
+	public String getStatus() {
+		return status;
+	}
+	public TicketFilter setStatus(String status) {
+		this.status = status;
+		return this;
+	}
+	public String getPriority() {
+		return priority;
+	}
+	public TicketFilter setPriority(String priority) {
+		this.priority = priority;
+		return this;
+	}
+	public String getUserId() {
+		return userId;
+	}
+	public TicketFilter setUserId(String userId) {
+		this.userId = userId;
+		return this;
+	}
+	public String getAssigneUserId() {
+		return assigneUserId;
+	}
+	public TicketFilter setAssigneUserId(String assigneUserId) {
+		this.assigneUserId = assigneUserId;
+		return this;
+	}
+	public Date getDateFrom() {
+		return dateFrom;
+	}
+	/**
+	 * Data inicial, inclusive.
+	 */
+	public TicketFilter setDateFrom(Date dateFrom) {
+		this.dateFrom = dateFrom;
+		return this;
+	}
+	public Date getDateTo() {
+		return dateTo;
+	}
+	/**
+	 * Data final, exclusive.
+	 */
+	public TicketFilter setDateTo(Date dateTo) {
+		this.dateTo = dateTo;
+		return this;
+	}
+	
+}
@@ -0,0 +1,42 @@
+package com.helpdesk.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório da importação em lote, com o resultado de cada registro na ordem em que foi enviado.
+ *
+ */
+public class TicketImportReport {
+	
+	private long imported;
+	
+	private long failed;
+	
+	private List<TicketImportResult> results = new ArrayList<>();
+	
+	public void add(TicketImportResult result) {
+		this.results.add(result);
+	}
+	
+	/**
+	 * Atualiza os totais depois que todos os lotes foram gravados.
+	 */
+	public TicketImportReport complete() {
+		this.imported = this.results.stream().filter(TicketImportResult::isImported).count();
+		this.failed = this.results.size() - this.imported;
+		return this;
+	}
+	
+	public long getImported() {
+		return imported;
+	}
+	
+	public long getFailed() {
+		return failed;
+	}
+	
+	public List<TicketImportResult> getResults() {
+		return results;
+	}
+}
@@ -0,0 +1,71 @@
+package com.helpdesk.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Resultado da importação de um registro, identificado pela sua posição no arquivo enviado.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+public class TicketImportResult {
+	
+	private long index;
+	
+	private String id;
+	
+	private Integer number;
+	
+	private List<String> errors;
+	
+	public TicketImportResult(long index) {
+		this.index = index;
+	}
+	
+	public long getIndex() {
+		return index;
+	}
+	
+	public void setIndex(long index) {
+		this.index = index;
+	}
+	
+	public String getId() {
+		return id;
+	}
+	
+	public void setId(String id) {
+		this.id = id;
+	}
+	
+	public Integer getNumber() {
+		return number;
+	}
+	
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+	
+	public List<String> getErrors() {
+		return errors;
+	}
+	
+	public void setErrors(List<String> errors) {
+		this.errors = errors;
+	}
+	
+	public TicketImportResult addError(String error) {
+		if (this.errors == null) {
+			this.errors = new ArrayList<>();
+		}
+		this.errors.add(error);
+		return this;
+	}
+	
+	public boolean isImported() {
+		return this.errors == null;
+	}
+}
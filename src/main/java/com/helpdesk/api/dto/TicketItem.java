@@ -0,0 +1,112 @@
+package com.helpdesk.api.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.PriorityEnum;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.util.ReferenceUtil;
+
+/**
+ * Representação resumida do ticket usada nas listagens. A descrição, a imagem e o histórico
+ * são retornados apenas na consulta do ticket por id.
+ *
+ */
+public class TicketItem {
+
+	private String id;
+	private Integer number;
+	private String title;
+	private StatusEnum status;
+	private PriorityEnum priority;
+	private Date date;
+	private String userEmail;
+	private String assigneUserEmail;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Float score;
+	
+	/**
+	 * Cria o item a partir do ticket projetado, buscando o email dos usuários no mapa já carregado.
+	 * @param ticket
+	 * @param users usuários da página, indexados pelo id
+	 * @return
+	 */
+	public static TicketItem of(Ticket ticket, Map<String, User> users) {
+		TicketItem item = new TicketItem();
+		item.setId(ticket.getId());
+		item.setNumber(ticket.getNumber());
+		item.setTitle(ticket.getTitle());
+		item.setStatus(ticket.getStatus());
+		item.setPriority(ticket.getPriority());
+		item.setDate(ticket.getDate());
+		item.setUserEmail(emailOf(users.get(ReferenceUtil.idOf(ticket.getUser()))));
+		item.setAssigneUserEmail(emailOf(users.get(ReferenceUtil.idOf(ticket.getAssigneUser()))));
+		item.setScore(ticket.getScore());
+		return item;
+	}
+	
+	private static String emailOf(User user) {
+		return user != null ? user.getEmail() : null;
+	}
+	
+	public String getId() {
+		return id;
+	}
+	public void setId(String id) {
+		this.id = id;
+	}
+	public Integer getNumber() {
+		return number;
+	}
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+	public String getTitle() {
+		return title;
+	}
+	public void setTitle(String title) {
+		this.title = title;
+	}
+	public StatusEnum getStatus() {
+		return status;
+	}
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+	public PriorityEnum getPriority() {
+		return priority;
+	}
+	public void setPriority(PriorityEnum priority) {
+		this.priority = priority;
+	}
+	public Date getDate() {
+		return date;
+	}
+	public void setDate(Date date) {
+		this.date = date;
+	}
+	public String getUserEmail() {
+		return userEmail;
+	}
+	public void setUserEmail(String userEmail) {
+		this.userEmail = userEmail;
+	}
+	public String getAssigneUserEmail() {
+		return assigneUserEmail;
+	}
+	public void setAssigneUserEmail(String assigneUserEmail) {
+		this.assigneUserEmail = assigneUserEmail;
+	}
+	public Float getScore() {
+		return score;
+	}
+	public void setScore(Float score) {
+		this.score = score;
+	}
+	
+}
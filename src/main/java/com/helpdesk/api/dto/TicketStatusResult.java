@@ -0,0 +1,61 @@
+package com.helpdesk.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Resultado da mudança de status de um ticket na alteração em lote.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+public class TicketStatusResult {
+	
+	private String id;
+	
+	private StatusEnum previousStatus;
+	
+	private StatusEnum status;
+	
+	private String error;
+	
+	public TicketStatusResult(String id) {
+		this.id = id;
+	}
+	
+	public String getId() {
+		return id;
+	}
+	
+	public void setId(String id) {
+		this.id = id;
+	}
+	
+	public StatusEnum getPreviousStatus() {
+		return previousStatus;
+	}
+	
+	public void setPreviousStatus(StatusEnum previousStatus) {
+		this.previousStatus = previousStatus;
+	}
+	
+	public StatusEnum getStatus() {
+		return status;
+	}
+	
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+	
+	public String getError() {
+		return error;
+	}
+	
+	public void setError(String error) {
+		this.error = error;
+	}
+	
+	public boolean isChanged() {
+		return this.error == null;
+	}
+}
@@ -14,10 +14,11 @@ public class ChangeStatus {
 	@Id
 	private String id;
 	
-	@DBRef
+	//Referências lazy: o usuário é carregado em lote pelo serviço e o ticket não é retornado no histórico
+	@DBRef(lazy = true)
 	private Ticket ticket;
 	
-	@DBRef
+	@DBRef(lazy = true)
 	private User userChange;
 	
 	private Date dateChange;
@@ -0,0 +1,80 @@
+package com.helpdesk.api.entity;
+
+import java.util.Date;
+
+import com.helpdesk.api.enums.StatusEnum;
+
+/**
+ * Mudança de status embutida no documento do ticket. Guarda o id e o email de quem alterou,
+ * para que o histórico recente seja exibido sem consultar os usuários.
+ *
+ */
+public class RecentChange {
+	
+	private Date dateChange;
+	
+	private StatusEnum status;
+	
+	private String userId;
+	
+	private String userEmail;
+	
+	public RecentChange() {
+	}
+	
+	public RecentChange(Date dateChange, StatusEnum status, User userChange) {
+		this.dateChange = dateChange;
+		this.status = status;
+		if (userChange != null) {
+			this.userId = userChange.getId();
+			this.userEmail = userChange.getEmail();
+		}
+	}
+	
+	/**
+	 * Converte para o formato do histórico retornado na consulta do ticket.
+	 * @return
+	 */
+	public ChangeStatus toChangeStatus() {
+		User userChange = new User();
+		userChange.setId(this.userId);
+		userChange.setEmail(this.userEmail);
+		ChangeStatus changeStatus = new ChangeStatus();
+		changeStatus.setDateChange(this.dateChange);
+		changeStatus.setStatus(this.status);
+		changeStatus.setUserChange(userChange);
+		return changeStatus;
+	}
+	
+	public Date getDateChange() {
+		return dateChange;
+	}
+	
+	public void setDateChange(Date dateChange) {
+		this.dateChange = dateChange;
+	}
+	
+	public StatusEnum getStatus() {
+		return status;
+	}
+	
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+	
+	public String getUserId() {
+		return userId;
+	}
+	
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+	
+	public String getUserEmail() {
+		return userEmail;
+	}
+	
+	public void setUserEmail(String userEmail) {
+		this.userEmail = userEmail;
+	}
+}
@@ -0,0 +1,34 @@
+package com.helpdesk.api.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Contador atômico usado para gerar números sequenciais, como o número do ticket.
+ * O valor guarda o último número já reservado por alguma instância da aplicação.
+ *
+ */
+@Document
+public class Sequence {
+
+	@Id
+	private String id;
+	
+	private Long value;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Long getValue() {
+		return value;
+	}
+
+	public void setValue(Long value) {
+		this.value = value;
+	}
+}
@@ -7,6 +7,11 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
 import com.helpdesk.api.enums.PriorityEnum;
 import com.helpdesk.api.enums.StatusEnum;
@@ -35,10 +40,29 @@ public class Ticket {
 	
 	private String description;
 	
+	//Imagem recebida do cliente (data URL). Não é gravada no ticket, e sim no armazenamento de anexos
+	@Transient
 	private String image;
 	
+	private String imageId;
+	
+	//Versão do ticket, incrementada a cada alteração. Tickets antigos não possuem o campo e equivalem à versão 0
+	private Long version;
+	
+	//Data da última escrita, mantida por todas as alterações do TicketService. Tickets antigos não possuem o campo
+	private Date lastModified;
+	
 	@Transient
 	private List<ChangeStatus> changes;
+	
+	//Últimas mudanças de status, da mais recente para a mais antiga. O histórico completo continua em ChangeStatus
+	@JsonIgnore
+	private List<RecentChange> recentChanges;
+	
+	//Relevância do ticket na busca textual, preenchida apenas nas buscas
+	@TextScore
+	@JsonInclude(Include.NON_NULL)
+	private Float score;
 
 	public String getId() {
 		return id;
@@ -120,6 +144,14 @@ public class Ticket {
 		this.image = image;
 	}
 
+	public String getImageId() {
+		return imageId;
+	}
+	
+	public void setImageId(String imageId) {
+		this.imageId = imageId;
+	}
+	
 	public List<ChangeStatus> getChanges() {
 		return changes;
 	}
@@ -127,4 +159,36 @@ public class Ticket {
 	public void setChanges(List<ChangeStatus> changes) {
 		this.changes = changes;
 	}
+	
+	public Float getScore() {
+		return score;
+	}
+	
+	public void setScore(Float score) {
+		this.score = score;
+	}
+	
+	public Long getVersion() {
+		return version;
+	}
+	
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+	
+	public Date getLastModified() {
+		return lastModified;
+	}
+	
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+	
+	public List<RecentChange> getRecentChanges() {
+		return recentChanges;
+	}
+	
+	public void setRecentChanges(List<RecentChange> recentChanges) {
+		this.recentChanges = recentChanges;
+	}
 }
@@ -0,0 +1,50 @@
+package com.helpdesk.api.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Quantidade de tickets por status, mantida de forma incremental a cada escrita.
+ * O id identifica o escopo da contagem: todos os tickets, um solicitante ou um técnico.
+ *
+ */
+@Document
+public class TicketCounter {
+
+	public static final String ALL = "all";
+	
+	@Id
+	private String id;
+	
+	private Map<String, Long> amounts;
+	
+	public static String userScope(String userId) {
+		return "user:" + userId;
+	}
+	
+	public static String assigneUserScope(String userId) {
+		return "assignee:" + userId;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Map<String, Long> getAmounts() {
+		if (this.amounts == null) {
+			this.amounts = new HashMap<>();
+		}
+		return amounts;
+	}
+
+	public void setAmounts(Map<String, Long> amounts) {
+		this.amounts = amounts;
+	}
+}
@@ -0,0 +1,42 @@
+package com.helpdesk.api.enums;
+
+/**
+ * Classes de endpoint, cada uma atendida por um pool de threads próprio para que consultas lentas
+ * (resumos e exportações) não ocupem as threads das consultas rápidas.
+ *
+ */
+public enum EndpointClassEnum {
+
+	Query("query", 64, 256, 10000),
+	Report("report", 8, 16, 60000),
+	Write("write", 32, 128, 30000);
+	
+	private final String name;
+	private final int threads;
+	private final int queue;
+	private final long timeout;
+	
+	private EndpointClassEnum(String name, int threads, int queue, long timeout) {
+		this.name = name;
+		this.threads = threads;
+		this.queue = queue;
+		this.timeout = timeout;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public int getThreads() {
+		return threads;
+	}
+	
+	public int getQueue() {
+		return queue;
+	}
+	
+	public long getTimeout() {
+		return timeout;
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.helpdesk.api.enums;
+
+public enum ExportFormatEnum {
+
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+	
+	private final String contentType;
+	private final String extension;
+	
+	private ExportFormatEnum(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+	
+	public String getContentType() {
+		return contentType;
+	}
+	
+	public String getExtension() {
+		return extension;
+	}
+	
+	public static ExportFormatEnum getFormat(String format) {
+		switch (format.toLowerCase()) {
+			case "ndjson": return NDJSON;
+			case "csv": return CSV;
+			default : throw new IllegalArgumentException("Unsupported export format: " + format);
+		}
+	}
+	
+}
@@ -1,5 +1,8 @@
 package com.helpdesk.api.enums;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public enum StatusEnum {
 
 	New,
@@ -21,4 +24,58 @@ public enum StatusEnum {
 		}
 	}
 	
+	/**
+	 * Indica se o texto é um dos status aceitos por getStatus, que converte valores desconhecidos em New.
+	 * @param status
+	 * @return
+	 */
+	public static boolean isStatus(String status) {
+		for (StatusEnum value : values()) {
+			if (value.name().equals(status)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Fluxo de atendimento: o técnico assume e resolve o ticket, o cliente aprova ou reprova a solução
+	 * e o técnico fecha os tickets aprovados. Tickets reprovados voltam para o técnico.
+	 * @param status
+	 * @return
+	 */
+	public boolean canChangeTo(StatusEnum status) {
+		switch (this) {
+			case New: return status == Assigned;
+			case Assigned: return status == Resolved;
+			case Resolved: return status == Approved || status == Disaproved;
+			case Disaproved: return status == Assigned || status == Resolved;
+			case Approved: return status == Closed;
+			default : return false;
+		}
+	}
+
+	/**
+	 * Status a partir dos quais o ticket pode ir para o status informado.
+	 * @param status
+	 * @return
+	 */
+	public static List<StatusEnum> changeableTo(StatusEnum status) {
+		List<StatusEnum> sources = new ArrayList<>();
+		for (StatusEnum source : values()) {
+			if (source.canChangeTo(status)) {
+				sources.add(source);
+			}
+		}
+		return sources;
+	}
+	
+	/**
+	 * Aprovação e reprovação são decisões do cliente sobre a solução de cada ticket. As demais mudanças são do técnico.
+	 * @return
+	 */
+	public boolean isCustomerDecision() {
+		return this == Approved || this == Disaproved;
+	}
+
 }
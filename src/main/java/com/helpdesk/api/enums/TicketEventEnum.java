@@ -0,0 +1,10 @@
+package com.helpdesk.api.enums;
+
+public enum TicketEventEnum {
+	
+	Created,
+	Updated,
+	StatusChanged,
+	Deleted;
+
+}
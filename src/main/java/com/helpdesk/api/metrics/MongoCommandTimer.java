@@ -0,0 +1,64 @@
+package com.helpdesk.api.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonValue;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede o tempo de cada comando enviado ao Mongo, por comando, coleção e pelo endpoint e perfil da requisição. Inclui as consultas feitas pelos repositórios,
+ * pelo MongoTemplate e pela resolução de referências {@code @DBRef}.
+ *
+ */
+public class MongoCommandTimer implements CommandListener {
+	
+	public static final String METRIC = "helpdesk.mongo.command";
+	
+	private final MeterRegistry registry;
+	
+	//Tags de cada comando em andamento; o evento de conclusão não traz o comando enviado. O driver síncrono dispara
+	//o início na thread que executa o comando, onde a requisição ainda está disponível
+	private final Map<Integer, Tags> started = new ConcurrentHashMap<>();
+	
+	public MongoCommandTimer(MeterRegistry registry) {
+		this.registry = registry;
+	}
+	
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		BsonValue collection = event.getCommand().get(event.getCommandName());
+		this.started.put(event.getRequestId(), RequestTags.current()
+				.and("collection", collection != null && collection.isString() ? collection.asString().getValue() : "none"));
+	}
+	
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		record(event.getRequestId(), event.getCommandName(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+	}
+	
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		record(event.getRequestId(), event.getCommandName(), "failure", event.getElapsedTime(TimeUnit.NANOSECONDS));
+	}
+	
+	private void record(int requestId, String command, String status, long elapsed) {
+		Tags tags = this.started.remove(requestId);
+		Timer.builder(METRIC)
+				.description("Mongo commands sent by the application")
+				.tags(tags != null ? tags : Tags.of("uri", "none", "role", "none", "collection", "none"))
+				.tag("command", command)
+				.tag("status", status)
+				.register(this.registry)
+				.record(elapsed, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,54 @@
+package com.helpdesk.api.metrics;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.helpdesk.api.security.jwt.JwtAuthenticationTokenFilter;
+
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Endpoint e perfil da requisição em andamento na thread, para as métricas medidas fora da camada web.
+ * Fora de uma requisição (inicialização, agendamentos, eventos) as tags ficam como none.
+ *
+ */
+public final class RequestTags {
+	
+	private static final Tags NONE = Tags.of("uri", "none", "role", "none");
+
+	private RequestTags() {
+	}
+	
+	public static Tags current() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return NONE;
+		}
+		try {
+			Object role = attributes.getAttribute(JwtAuthenticationTokenFilter.ROLE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			return Tags.of("uri", uri(attributes), "role", role != null ? role.toString() : "anonymous");
+		} catch (IllegalStateException e) {
+			//Requisição já encerrada
+			return NONE;
+		}
+	}
+	
+	/**
+	 * Padrão da rota atendida, como na tag uri das métricas HTTP.
+	 * @return
+	 */
+	public static String uri() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		try {
+			return attributes != null ? uri(attributes) : "none";
+		} catch (IllegalStateException e) {
+			return "none";
+		}
+	}
+	
+	private static String uri(RequestAttributes attributes) {
+		Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		return pattern != null ? pattern.toString() : "UNKNOWN";
+	}
+}
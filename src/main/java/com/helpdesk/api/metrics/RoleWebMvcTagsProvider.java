@@ -0,0 +1,35 @@
+package com.helpdesk.api.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.web.servlet.DefaultWebMvcTagsProvider;
+
+import com.helpdesk.api.security.jwt.JwtAuthenticationTokenFilter;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Acrescenta às métricas das requisições HTTP o perfil do usuário autenticado.
+ *
+ */
+public class RoleWebMvcTagsProvider extends DefaultWebMvcTagsProvider {
+	
+	@Override
+	public Iterable<Tag> httpRequestTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Throwable exception) {
+		return Tags.concat(super.httpRequestTags(request, response, handler, exception), "role", role(request));
+	}
+	
+	@Override
+	public Iterable<Tag> httpLongRequestTags(HttpServletRequest request, Object handler) {
+		return Tags.concat(super.httpLongRequestTags(request, handler), "role", role(request));
+	}
+	
+	//O contexto de segurança já foi limpo quando a métrica é registrada, então o perfil é lido da requisição
+	private String role(HttpServletRequest request) {
+		Object role = request.getAttribute(JwtAuthenticationTokenFilter.ROLE_ATTRIBUTE);
+		return role != null ? role.toString() : "anonymous";
+	}
+}
@@ -0,0 +1,44 @@
+package com.helpdesk.api.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede o tempo de todos os métodos do TicketService e do UserService, por serviço, método, exceção e pelo endpoint e perfil da requisição.
+ *
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+	
+	public static final String METRIC = "helpdesk.service";
+	
+	@Autowired
+	private MeterRegistry registry;
+	
+	@Around("execution(* com.helpdesk.api.service.TicketService.*(..)) || execution(* com.helpdesk.api.service.UserService.*(..))")
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(this.registry);
+		String exception = "none";
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(METRIC)
+					.description("Time spent in the application services")
+					.tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+					.tag("method", joinPoint.getSignature().getName())
+					.tag("exception", exception)
+					.tags(RequestTags.current())
+					.register(this.registry));
+		}
+	}
+}
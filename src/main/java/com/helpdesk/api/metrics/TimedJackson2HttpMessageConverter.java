@@ -0,0 +1,44 @@
+package com.helpdesk.api.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Conversor JSON das respostas que mede o tempo de serialização, por endpoint. As respostas escritas em stream
+ * (listagens, busca e exportação) registram a mesma métrica no RequestExecutorService.
+ *
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+	
+	public static final String METRIC = "helpdesk.http.serialization";
+	
+	private final MeterRegistry registry;
+	
+	public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+		super(objectMapper);
+		this.registry = registry;
+	}
+	
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		Timer.Sample sample = Timer.start(this.registry);
+		try {
+			super.writeInternal(object, type, outputMessage);
+		} finally {
+			sample.stop(Timer.builder(METRIC)
+					.description("Time spent writing JSON responses")
+					.tag("uri", RequestTags.uri())
+					.register(this.registry));
+		}
+	}
+}
@@ -3,19 +3,31 @@ package com.helpdesk.api.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.helpdesk.api.entity.Ticket;
 
-public interface TicketRepository extends MongoRepository<Ticket, String> {
+public interface TicketRepository extends MongoRepository<Ticket, String>, TicketRepositoryCustom {
 
+	/**
+	 * Campos lidos nas listagens. Descrição, imagem e demais campos só são lidos na consulta por id.
+	 */
+	String LIST_FIELDS = "{ 'number' : 1, 'title' : 1, 'status' : 1, 'priority' : 1, 'date' : 1, 'user' : 1, 'assigneUser' : 1 }";
+	
+	@Query(value = "{}", fields = LIST_FIELDS)
+	Page<Ticket> findAllProjectedBy(Pageable pages);
+
+	@Query(fields = LIST_FIELDS)
 	Page<Ticket> findByUserIdOrderByDateDesc(Pageable pages, String userId);
 	
+	@Query(fields = LIST_FIELDS)
 	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityOrderByDateDesc(
 			String title,
 			String status,
 			String priority,
 			Pageable pages);
 	
+	@Query(fields = LIST_FIELDS)
 	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusAndPriorityAndUserIdOrderByDateDesc(
 			String title,
 			String status,
@@ -23,6 +35,7 @@ public interface TicketRepository extends MongoRepository<Ticket, String> {
 			String userId,
 			Pageable pages);
 	
+	@Query(fields = LIST_FIELDS)
 	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusAndPriorityIgnoreCaseContainingAndAssigneUserIdOrderByDateDesc(
 			String title,
 			String status,
@@ -30,6 +43,7 @@ public interface TicketRepository extends MongoRepository<Ticket, String> {
 			String userId,
 			Pageable pages);
 	
+	@Query(fields = LIST_FIELDS)
 	Page<Ticket> findByNumber(Integer number, Pageable pages);
 	
 	Ticket findOneById(String id);
@@ -0,0 +1,76 @@
+package com.helpdesk.api.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
+
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.entity.Ticket;
+
+public interface TicketRepositoryCustom {
+
+	/**
+	 * Busca os tickets ordenados por data e id decrescentes, a partir da posição (date, id) do último ticket da fatia anterior.
+	 * Apenas os campos de listagem ({@link TicketRepository#LIST_FIELDS}) são lidos.
+	 * @param filter
+	 * @param date data do último ticket lido, ou null para a primeira fatia
+	 * @param id id do último ticket lido, ou null para a primeira fatia
+	 * @param count
+	 * @return
+	 */
+	List<Ticket> findByFilterAfter(TicketFilter filter, Date date, String id, int count);
+	
+	/**
+	 * Busca textual no título e na descrição, ordenada por relevância e aplicando os demais filtros.
+	 * @param text
+	 * @param filter
+	 * @param pages
+	 * @return
+	 */
+	Page<Ticket> search(String text, TicketFilter filter, Pageable pages);
+	
+	/**
+	 * Percorre com um cursor do Mongo apenas a página informada da busca textual, na mesma ordenação de {@link #search}.
+	 * O iterador deve ser fechado ao final da leitura.
+	 * @param text
+	 * @param filter
+	 * @param pages
+	 * @return
+	 */
+	CloseableIterator<Ticket> streamSearch(String text, TicketFilter filter, Pageable pages);
+	
+	/**
+	 * Quantidade de tickets da busca textual.
+	 * @param text
+	 * @param filter
+	 * @return
+	 */
+	long countSearch(String text, TicketFilter filter);
+	
+	/**
+	 * Percorre com um cursor do Mongo todos os tickets do filtro, ordenados por data decrescente, lendo apenas os campos de listagem.
+	 * O iterador deve ser fechado ao final da leitura.
+	 * @param filter
+	 * @return
+	 */
+	CloseableIterator<Ticket> streamByFilter(TicketFilter filter);
+	
+	/**
+	 * Percorre com um cursor do Mongo apenas a página informada dos tickets do filtro, na ordenação da página, lendo apenas os campos de listagem.
+	 * O iterador deve ser fechado ao final da leitura.
+	 * @param filter
+	 * @param pages
+	 * @return
+	 */
+	CloseableIterator<Ticket> streamByFilter(TicketFilter filter, Pageable pages);
+	
+	/**
+	 * Quantidade de tickets do filtro.
+	 * @param filter
+	 * @return
+	 */
+	long countByFilter(TicketFilter filter);
+}
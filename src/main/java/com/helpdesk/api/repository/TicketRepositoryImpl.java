@@ -0,0 +1,140 @@
+package com.helpdesk.api.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.util.CloseableIterator;
+
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.entity.Ticket;
+
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Override
+	public List<Ticket> findByFilterAfter(TicketFilter filter, Date date, String id, int count) {
+		List<Criteria> criteria = filterCriteria(filter);
+		if (date != null && id != null) {
+			Object lastId = ObjectId.isValid(id) ? new ObjectId(id) : id;
+			criteria.add(new Criteria().orOperator(
+					Criteria.where("date").lt(date),
+					Criteria.where("date").is(date).and("id").lt(lastId)));
+		}
+		Query query = new Query(and(criteria))
+				.with(Sort.by(Direction.DESC, "date", "id"))
+				.limit(count);
+		includeListFields(query);
+		return this.mongoTemplate.find(query, Ticket.class);
+	}
+	
+	@Override
+	public Page<Ticket> search(String text, TicketFilter filter, Pageable pages) {
+		long total = countSearch(text, filter);
+		List<Ticket> tickets = this.mongoTemplate.find(searchQuery(text, filter).with(pages), Ticket.class);
+		return new PageImpl<>(tickets, pages, total);
+	}
+	
+	@Override
+	public CloseableIterator<Ticket> streamSearch(String text, TicketFilter filter, Pageable pages) {
+		return this.mongoTemplate.stream(searchQuery(text, filter).with(pages), Ticket.class);
+	}
+	
+	@Override
+	public long countSearch(String text, TicketFilter filter) {
+		return this.mongoTemplate.count(searchQuery(text, filter), Ticket.class);
+	}
+	
+	@Override
+	public CloseableIterator<Ticket> streamByFilter(TicketFilter filter) {
+		Query query = new Query(and(filterCriteria(filter)))
+				.with(Sort.by(Direction.DESC, "date", "id"));
+		includeListFields(query);
+		return this.mongoTemplate.stream(query, Ticket.class);
+	}
+	
+	@Override
+	public CloseableIterator<Ticket> streamByFilter(TicketFilter filter, Pageable pages) {
+		Query query = new Query(and(filterCriteria(filter))).with(pages);
+		includeListFields(query);
+		return this.mongoTemplate.stream(query, Ticket.class);
+	}
+	
+	@Override
+	public long countByFilter(TicketFilter filter) {
+		return this.mongoTemplate.count(new Query(and(filterCriteria(filter))), Ticket.class);
+	}
+	
+	private Query searchQuery(String text, TicketFilter filter) {
+		Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+				.sortByScore()
+				.with(Sort.by(Direction.DESC, "date"));
+		filterCriteria(filter).forEach(query::addCriteria);
+		includeListFields(query);
+		return query;
+	}
+	
+	private List<Criteria> filterCriteria(TicketFilter filter) {
+		List<Criteria> criteria = new ArrayList<>();
+		if (hasText(filter.getTitle())) {
+			criteria.add(Criteria.where("title").regex(Pattern.quote(filter.getTitle()), "i"));
+		}
+		if (hasText(filter.getStatus())) {
+			criteria.add(Criteria.where("status").is(filter.getStatus()));
+		}
+		if (hasText(filter.getPriority())) {
+			criteria.add(Criteria.where("priority").is(filter.getPriority()));
+		}
+		if (hasText(filter.getUserId())) {
+			criteria.add(Criteria.where("user.id").is(filter.getUserId()));
+		}
+		if (hasText(filter.getAssigneUserId())) {
+			criteria.add(Criteria.where("assigneUser.id").is(filter.getAssigneUserId()));
+		}
+		if (filter.getDateFrom() != null || filter.getDateTo() != null) {
+			Criteria date = Criteria.where("date");
+			if (filter.getDateFrom() != null) {
+				date.gte(filter.getDateFrom());
+			}
+			if (filter.getDateTo() != null) {
+				date.lt(filter.getDateTo());
+			}
+			criteria.add(date);
+		}
+		return criteria;
+	}
+	
+	private void includeListFields(Query query) {
+		Document.parse(TicketRepository.LIST_FIELDS).keySet().forEach(field -> query.fields().include(field));
+	}
+	
+	private Criteria and(List<Criteria> criteria) {
+		if (criteria.isEmpty()) {
+			return new Criteria();
+		}
+		if (criteria.size() == 1) {
+			return criteria.get(0);
+		}
+		return new Criteria().andOperator(criteria.toArray(new Criteria[criteria.size()]));
+	}
+	
+	private boolean hasText(String value) {
+		return value != null && !value.isEmpty();
+	}
+}
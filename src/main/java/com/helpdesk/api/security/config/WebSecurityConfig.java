@@ -70,6 +70,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 					"/**/*.js"
 			).permitAll()
 			.antMatchers("/api/auth/**").permitAll()
+			//Health check e coleta do Prometheus; em produção o acesso deve ser restrito à rede interna
+			.antMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
 			.anyRequest().authenticated();
 		httpSecurity.addFilterBefore(authenticationTokenFilterBean(), UsernamePasswordAuthenticationFilter.class);
 		httpSecurity.headers().cacheControl();
@@ -48,9 +48,21 @@ public class AuthenticationRestController {
 		SecurityContextHolder.getContext().setAuthentication(authentication);
 		final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getEmail());
 		final String token = jwtTokenUtil.generateToken(userDetails);
-		final User user = userService.findByEmail(authenticationRequest.getEmail());
-		user.setPassword(null);
+		final User user = withoutPassword(userService.findByEmail(authenticationRequest.getEmail()));
 		return ResponseEntity.ok(new CurrentUser(token, user));
 		
 	}
+	
+	/**
+	 * O usuário retornado pelo {@link UserService} é compartilhado pelo cache, por isso a senha é removida de uma cópia.
+	 * @param user
+	 * @return
+	 */
+	private User withoutPassword(User user) {
+		User copy = new User();
+		copy.setId(user.getId());
+		copy.setEmail(user.getEmail());
+		copy.setProfile(user.getProfile());
+		return copy;
+	}
 }
@@ -15,6 +15,9 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * Filtro responsável por verificar o acesso a cada requisição, ou seja, se existe no header do http um token válido autorizando o acesso.
  * @author anderson.marques
@@ -22,29 +25,62 @@ import org.springframework.web.filter.OncePerRequestFilter;
  */
 public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
+	/**
+	 * Atributo da requisição com o perfil do usuário autenticado, usado nas métricas HTTP.
+	 */
+	public static final String ROLE_ATTRIBUTE = JwtAuthenticationTokenFilter.class.getName() + ".role";
+	
+	public static final String METRIC = "helpdesk.security.jwt";
+	
 	@Autowired
 	private UserDetailsService userDetailsService;
 	
 	@Autowired
 	private JwtTokenUtil jwtTokenUtil;
 	
+	@Autowired
+	private MeterRegistry registry;
+	
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
 			throws ServletException, IOException {
-		String authToken = request.getHeader("Authorization");
-		String username = jwtTokenUtil.getUserNameFromToken(authToken);
-		
-		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-			if (jwtTokenUtil.validateToken(authToken, userDetails)) {
-				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-						userDetails, null, userDetails.getAuthorities());
-				authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				logger.info("authentication user " + username + ", setting security context");
-				SecurityContextHolder.getContext().setAuthentication(authentication);
-			}
+		Timer.Sample sample = Timer.start(registry);
+		//Se a verificação lançar uma exceção (usuário removido, por exemplo) o tempo é registrado como error
+		String result = "error";
+		try {
+			result = authenticate(request);
+		} finally {
+			sample.stop(Timer.builder(METRIC)
+					.description("Time spent verifying the JWT and loading the user")
+					.tag("result", result)
+					.register(registry));
 		}
 		chain.doFilter(request, response);
 	}
+	
+	/**
+	 * Autentica o usuário do token da requisição, quando ainda não autenticado.
+	 * @return resultado usado na tag da métrica: anonymous, rejected ou authenticated
+	 */
+	private String authenticate(HttpServletRequest request) {
+		JwtToken authToken = jwtTokenUtil.getToken(request);
+		String username = authToken != null ? authToken.getUserName() : null;
+		
+		if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+			return "anonymous";
+		}
+		UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+		if (!jwtTokenUtil.validateToken(authToken, userDetails)) {
+			return "rejected";
+		}
+		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+				userDetails, null, userDetails.getAuthorities());
+		authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		logger.info("authentication user " + username + ", setting security context");
+		SecurityContextHolder.getContext().setAuthentication(authentication);
+		userDetails.getAuthorities().stream().findFirst()
+				.ifPresent(authority -> request.setAttribute(ROLE_ATTRIBUTE, authority.getAuthority()));
+		return "authenticated";
+	}
 
 }
@@ -0,0 +1,56 @@
+package com.helpdesk.api.security.jwt;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Token JWT já verificado (assinatura HS512 e expiração). Uma vez criado, é guardado na requisição e no cache do {@link JwtTokenUtil},
+ * evitando que o mesmo token seja decodificado e verificado várias vezes.
+ *
+ */
+public class JwtToken implements Serializable {
+
+	private static final long serialVersionUID = -5430378231398124167L;
+
+	/**
+	 * Atributo da requisição onde o token verificado fica disponível para os controladores.
+	 */
+	public static final String REQUEST_ATTRIBUTE = JwtToken.class.getName();
+
+	private final String token;
+	private final String userName;
+	private final Date expiration;
+	private final Map<String, Object> claims;
+
+	public JwtToken(String token, Claims claims) {
+		this.token = token;
+		this.userName = claims.getSubject();
+		this.expiration = claims.getExpiration();
+		this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public Date getExpiration() {
+		return expiration;
+	}
+
+	public Map<String, Object> getClaims() {
+		return claims;
+	}
+
+	public boolean isExpired() {
+		return expiration == null || expiration.before(new Date());
+	}
+}
@@ -1,14 +1,27 @@
 package com.helpdesk.api.security.jwt;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -22,32 +35,103 @@ public class JwtTokenUtil implements Serializable {
 	static final String CLAIM_KEY_CREATED = "created";
 	static final String CLAIM_KEY_EXPIRED = "exp";
 	
+	//Único endpoint que aceita o token na query string
+	static final String EVENTS_PATH = "/api/ticket/events";
+	
 	@Value("${jwt.secret}")
 	private String secret;
 	
 	@Value("${jwt.expiration}")
 	private Long expiration;
 	
-	public String getUserNameFromToken(String token) {
-		String userName;
-		try {
+	@Value("${jwt.cache.maximum-size:10000}")
+	private long cacheMaximumSize;
+	
+	//Tokens já verificados, indexados pelo SHA-256 do token e removidos quando o token expira
+	private transient Cache<String, JwtToken> verifiedTokens;
+	
+	@PostConstruct
+	public void init() {
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(cacheMaximumSize)
+				.expireAfter(new Expiry<String, JwtToken>() {
+					@Override
+					public long expireAfterCreate(String key, JwtToken value, long currentTime) {
+						long remaining = value.getExpiration().getTime() - System.currentTimeMillis();
+						return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+					}
+					
+					@Override
+					public long expireAfterUpdate(String key, JwtToken value, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+					
+					@Override
+					public long expireAfterRead(String key, JwtToken value, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+	}
+	
+	/**
+	 * Verifica o token uma única vez e reaproveita o resultado enquanto ele não expirar.
+	 * @param token
+	 * @return o token verificado ou null se for inválido ou expirado
+	 */
+	public JwtToken verifyToken(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		final String key = digest(token);
+		JwtToken verified = this.verifiedTokens.getIfPresent(key);
+		if (verified == null || !verified.getToken().equals(token)) {
 			final Claims claims = getClaimsFromToken(token);
-			userName = claims.getSubject();
-		} catch (Exception e) {
-			userName = null;
+			if (claims == null || claims.getExpiration() == null) {
+				return null;
+			}
+			verified = new JwtToken(token, claims);
+			this.verifiedTokens.put(key, verified);
 		}
-		return userName;
+		return verified.isExpired() ? null : verified;
 	}
 	
-	public Date getExpirationDateFromToken(String token) {
-		Date expiration;
-		try {
-			final Claims claims = getClaimsFromToken(token);
-			expiration = claims.getExpiration();
-		} catch (Exception e) {
-			expiration = null;
+	/**
+	 * Retorna o token verificado da requisição, verificando o header Authorization apenas na primeira chamada.
+	 * @param request
+	 * @return
+	 */
+	public JwtToken getToken(HttpServletRequest request) {
+		JwtToken verified = (JwtToken) request.getAttribute(JwtToken.REQUEST_ATTRIBUTE);
+		if (verified == null) {
+			String token = request.getHeader("Authorization");
+			//O EventSource do navegador não envia headers, então apenas no stream SSE o token também é aceito como parâmetro.
+			//A URL com o token fica registrada nos access logs do servidor e dos proxies: use tokens de curta duração
+			if (token == null && isEventStream(request)) {
+				token = request.getParameter("token");
+			}
+			verified = verifyToken(token);
+			if (verified != null) {
+				request.setAttribute(JwtToken.REQUEST_ATTRIBUTE, verified);
+			}
 		}
-		return expiration;
+		return verified;
+	}
+	
+	private boolean isEventStream(HttpServletRequest request) {
+		return "GET".equals(request.getMethod())
+				&& (request.getContextPath() + EVENTS_PATH).equals(request.getRequestURI())
+				&& MediaType.TEXT_EVENT_STREAM_VALUE.equals(request.getHeader("Accept"));
+	}
+	
+	public String getUserNameFromToken(String token) {
+		final JwtToken verified = verifyToken(token);
+		return verified != null ? verified.getUserName() : null;
+	}
+	
+	public Date getExpirationDateFromToken(String token) {
+		final JwtToken verified = verifyToken(token);
+		return verified != null ? verified.getExpiration() : null;
 	}
 	
 	private Claims getClaimsFromToken(String token) {
@@ -64,9 +148,13 @@ public class JwtTokenUtil implements Serializable {
 		return claims;
 	}
 	
-	private Boolean isTokenExpired(String token) {
-		final Date expiration = getExpirationDateFromToken(token);
-		return expiration.before(new Date());
+	private String digest(String token) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
 	public String generateToken(UserDetails userDetails) {
@@ -91,24 +179,25 @@ public class JwtTokenUtil implements Serializable {
 	}
 	
 	public Boolean canTokenBeRefreshed(String token) {
-		return (!isTokenExpired(token));
+		return verifyToken(token) != null;
 	}
 	
 	public String refreshToken(String token) {
-		String refreshedToken;
-		try {
-			final Claims claims = getClaimsFromToken(token);
-			claims.put(CLAIM_KEY_CREATED, new Date());
-			refreshedToken = doGenerateToken(claims);
-		} catch (Exception e) {
-			refreshedToken = null;
+		final JwtToken verified = verifyToken(token);
+		if (verified == null) {
+			return null;
 		}
-		return refreshedToken;
+		final Map<String, Object> claims = new HashMap<>(verified.getClaims());
+		claims.put(CLAIM_KEY_CREATED, new Date());
+		return doGenerateToken(claims);
 	}
 	
 	public Boolean validateToken(String token, UserDetails userDetails) {
+		return validateToken(verifyToken(token), userDetails);
+	}
+	
+	public Boolean validateToken(JwtToken token, UserDetails userDetails) {
 		JwtUser user = (JwtUser) userDetails;
-		final String username = getUserNameFromToken(token);
-		return (username.equals(user.getUsername()) && !isTokenExpired(token));
+		return (token != null && token.getUserName().equals(user.getUsername()) && !token.isExpired());
 	}
 }
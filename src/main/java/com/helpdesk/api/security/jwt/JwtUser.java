@@ -6,6 +6,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.helpdesk.api.entity.User;
 
 /**
  * Spring Security depende de um usuário que implemente {@link UserDetails}, pois é através desses dados que ele controla quem está autenticado no sistema.
@@ -21,12 +22,18 @@ public class JwtUser implements UserDetails {
 	private final String username;
 	private final String password;
 	private final Collection<? extends GrantedAuthority> authorities;
+	private final transient User user;
 	
 	public JwtUser(String id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+		this(id, username, password, authorities, null);
+	}
+	
+	public JwtUser(String id, String username, String password, Collection<? extends GrantedAuthority> authorities, User user) {
 		this.id = id;
 		this.username = username;
 		this.password = password;
 		this.authorities = authorities;
+		this.user = user;
 	}
 
 	@JsonIgnore
@@ -34,6 +41,15 @@ public class JwtUser implements UserDetails {
 		return id;
 	}
 
+	/**
+	 * Usuário carregado na autenticação, reaproveitado pelos controladores durante a requisição.
+	 * @return
+	 */
+	@JsonIgnore
+	public User getUser() {
+		return user;
+	}
+
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		return authorities;
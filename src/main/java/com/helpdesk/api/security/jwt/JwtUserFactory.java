@@ -26,7 +26,7 @@ public class JwtUserFactory {
 	 */
 	public static JwtUser create(User user) {
 		return new JwtUser(user.getId(), user.getEmail(), user.getPassword(),
-				mapToGrantedAuthorities(user.getProfile()));
+				mapToGrantedAuthorities(user.getProfile()), user);
 	}
 
 	/**
@@ -0,0 +1,21 @@
+package com.helpdesk.api.security.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.helpdesk.api.entity.User;
+
+/**
+ * Indica que o parâmetro do controlador deve receber o {@link User} autenticado na requisição,
+ * carregado uma única vez pelo filtro do JWT.
+ *
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AuthenticatedUser {
+
+}
@@ -0,0 +1,37 @@
+package com.helpdesk.api.security.web;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.security.jwt.JwtUser;
+
+/**
+ * Resolve os parâmetros anotados com {@link AuthenticatedUser} a partir do usuário já presente no contexto do Spring Security,
+ * sem nova consulta ao banco.
+ *
+ */
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.hasParameterAnnotation(AuthenticatedUser.class)
+				&& User.class.isAssignableFrom(parameter.getParameterType());
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof JwtUser) {
+			return ((JwtUser) authentication.getPrincipal()).getUser();
+		}
+		return null;
+	}
+
+}
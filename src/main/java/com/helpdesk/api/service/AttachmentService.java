@@ -0,0 +1,23 @@
+package com.helpdesk.api.service;
+
+import com.helpdesk.api.dto.Attachment;
+
+/**
+ * Armazenamento dos arquivos anexados aos tickets, fora do documento do ticket.
+ *
+ */
+public interface AttachmentService {
+
+	/**
+	 * Armazena o conteúdo de uma data URL (data:image/png;base64,...) ou de um texto em base64.
+	 * @param dataUrl
+	 * @return id do arquivo armazenado
+	 */
+	String storeDataUrl(String dataUrl);
+	
+	String store(byte[] content, String contentType);
+	
+	Attachment findById(String id);
+	
+	void delete(String id);
+}
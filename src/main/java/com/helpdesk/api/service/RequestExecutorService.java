@@ -0,0 +1,44 @@
+package com.helpdesk.api.service;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.helpdesk.api.enums.EndpointClassEnum;
+
+public interface RequestExecutorService {
+	
+	/**
+	 * Executa o handler no pool da classe do endpoint, liberando a thread do Tomcat enquanto ele acessa o Mongo.
+	 * @param endpointClass
+	 * @param task
+	 * @return
+	 * @throws TaskRejectedException se o pool e a fila da classe estão cheios
+	 */
+	<T> WebAsyncTask<T> submit(EndpointClassEnum endpointClass, Callable<T> task);
+	
+	/**
+	 * Reserva uma vaga na classe do endpoint para a escrita da resposta, que é executada no pool da classe pelo {@link #streamExecutor()}.
+	 * @param endpointClass
+	 * @param body
+	 * @return
+	 * @throws TaskRejectedException se o limite da classe foi atingido
+	 */
+	StreamingResponseBody stream(EndpointClassEnum endpointClass, StreamingResponseBody body);
+	
+	/**
+	 * Executor das tarefas assíncronas do Spring MVC: roda os StreamingResponseBody no pool reservado por {@link #stream}.
+	 * @return
+	 */
+	AsyncTaskExecutor streamExecutor();
+	
+	/**
+	 * Devolve a vaga reservada pela requisição, se ainda não devolvida. Chamado ao fim da requisição.
+	 * @param request
+	 */
+	void release(RequestAttributes request);
+}
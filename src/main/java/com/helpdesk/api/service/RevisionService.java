@@ -0,0 +1,23 @@
+package com.helpdesk.api.service;
+
+import java.util.Map;
+
+public interface RevisionService {
+	
+	String TICKET = "ticket";
+	
+	String USER = "user";
+	
+	/**
+	 * Registra uma escrita na coleção, invalidando os ETags das respostas montadas a partir dela.
+	 * @param name
+	 */
+	void increment(String name);
+	
+	/**
+	 * Revisão atual de cada coleção, lidas em uma única consulta. Coleções sem escrita registrada estão na revisão 0.
+	 * @param names
+	 * @return
+	 */
+	Map<String, Long> current(String... names);
+}
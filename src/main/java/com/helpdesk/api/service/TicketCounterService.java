@@ -0,0 +1,34 @@
+package com.helpdesk.api.service;
+
+import java.util.Collection;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.entity.Ticket;
+
+public interface TicketCounterService {
+	
+	/**
+	 * Ajusta os contadores de acordo com o estado anterior e o estado atual do ticket.
+	 * @param before estado anterior, ou null para um ticket novo
+	 * @param after estado atual, ou null para um ticket removido
+	 */
+	void update(Ticket before, Ticket after);
+	
+	/**
+	 * Ajusta os contadores para um lote de tickets com uma única operação em lote.
+	 * @param before estados anteriores, vazio para tickets novos
+	 * @param after estados atuais
+	 */
+	void updateAll(Collection<Ticket> before, Collection<Ticket> after);
+	
+	Summary summary();
+	
+	Summary summaryByUser(String userId);
+	
+	Summary summaryByAssignedUser(String userId);
+	
+	/**
+	 * Recalcula todos os contadores a partir de uma agregação da coleção de tickets.
+	 */
+	void rebuild();
+}
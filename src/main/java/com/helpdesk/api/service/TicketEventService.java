@@ -0,0 +1,27 @@
+package com.helpdesk.api.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.helpdesk.api.dto.TicketEvent;
+import com.helpdesk.api.entity.User;
+
+public interface TicketEventService {
+	
+	/**
+	 * Abre um stream SSE com os eventos que o usuário pode ver: o cliente recebe apenas os próprios tickets
+	 * e o técnico recebe todos ou apenas os atribuídos a ele.
+	 * @param user
+	 * @param assigned
+	 * @return
+	 * @throws IllegalStateException se o limite de conexões foi atingido
+	 */
+	SseEmitter subscribe(User user, boolean assigned);
+	
+	/**
+	 * Envia o evento às conexões interessadas sem bloquear quem publicou.
+	 * @param event
+	 */
+	void publish(TicketEvent event);
+	
+	boolean hasSubscribers();
+}
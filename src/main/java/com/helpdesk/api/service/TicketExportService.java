@@ -0,0 +1,45 @@
+package com.helpdesk.api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.data.domain.Pageable;
+
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.enums.ExportFormatEnum;
+
+public interface TicketExportService {
+
+	/**
+	 * Escreve no stream todos os tickets do filtro, lidos de um cursor do Mongo em lotes,
+	 * sem acumular o resultado em memória.
+	 * @param filter
+	 * @param format
+	 * @param out
+	 * @return quantidade de tickets exportados
+	 * @throws IOException
+	 */
+	long export(TicketFilter filter, ExportFormatEnum format, OutputStream out) throws IOException;
+	
+	/**
+	 * Escreve no stream uma página dos tickets do filtro no mesmo JSON de {@code Response<Page<TicketItem>>},
+	 * com os tickets lidos de um cursor do Mongo e escritos à medida que chegam, sem montar a página em memória.
+	 * @param filter
+	 * @param pages
+	 * @param out
+	 * @return quantidade de tickets escritos
+	 * @throws IOException
+	 */
+	long writePage(TicketFilter filter, Pageable pages, OutputStream out) throws IOException;
+	
+	/**
+	 * Escreve no stream uma página da busca textual no mesmo JSON de {@code Response<Page<TicketItem>>}, como {@link #writePage}.
+	 * @param text
+	 * @param filter
+	 * @param pages
+	 * @param out
+	 * @return quantidade de tickets escritos
+	 * @throws IOException
+	 */
+	long writeSearchPage(String text, TicketFilter filter, Pageable pages, OutputStream out) throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.helpdesk.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.helpdesk.api.dto.TicketImportReport;
+
+public interface TicketImportService {
+	
+	/**
+	 * Importa os tickets de um array JSON ou de um arquivo NDJSON, lidos em streaming e gravados em lotes.
+	 * Registros inválidos são reportados e não interrompem a importação dos demais.
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	TicketImportReport importTickets(InputStream in) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.helpdesk.api.service;
+
+import java.util.List;
+
+public interface TicketNumberService {
+
+	Integer nextNumber();
+	
+	List<Integer> nextNumbers(int count);
+}
@@ -1,10 +1,20 @@
 package com.helpdesk.api.service;
 
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import com.helpdesk.api.dto.CursorSlice;
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.dto.TicketStatusResult;
 import com.helpdesk.api.entity.ChangeStatus;
 import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.StatusEnum;
 
 @Component
 public interface TicketService {
@@ -13,23 +23,121 @@ public interface TicketService {
 	
 	Ticket findById(String id);
 	
-	void delete(Ticket ticket);
+	/**
+	 * Lê apenas a versão e a data da última alteração do ticket, para responder requisições condicionais
+	 * sem carregar o documento.
+	 * @param id
+	 * @return o ticket só com esses campos ou null se não existir
+	 */
+	Ticket findVersion(String id);
+	
+	/**
+	 * Lê apenas o id da imagem do ticket, sem carregar o documento.
+	 * @param id
+	 * @return o id da imagem ou null se o ticket não existir ou não tiver imagem
+	 */
+	String findImageId(String id);
+	
+	/**
+	 * Ticket da tela de detalhe, com os usuários e o histórico de status já carregados. Sem o histórico embutido,
+	 * o ticket e o histórico são lidos em paralelo.
+	 * @param id
+	 * @return o ticket ou null se não existir
+	 */
+	Ticket findDetail(String id);
+	
+	/**
+	 * Altera com $set apenas os campos editáveis do ticket: título, prioridade, descrição e imagem.
+	 * Quando a versão é informada, a alteração só é aplicada se o ticket ainda estiver nessa versão.
+	 * @param ticket
+	 * @return ticket alterado
+	 * @throws IllegalArgumentException se o ticket não existir ou a transição não for permitida ({@link StatusEnum#canChangeTo})
+	 * @throws OptimisticLockingFailureException se o ticket foi alterado por outro usuário
+	 */
+	Ticket update(Ticket ticket);
 	
-	Page<Ticket> listTicket(int page, int count);
+	/**
+	 * Altera com $set o status do ticket (e o técnico, quando o status é Assigned) e grava o histórico.
+	 * @param id
+	 * @param status
+	 * @param userChange
+	 * @param version versão lida pelo usuário, ou null para não verificar
+	 * @return ticket alterado
+	 * @throws IllegalArgumentException se o ticket não existir ou a transição não for permitida ({@link StatusEnum#canChangeTo})
+	 * @throws OptimisticLockingFailureException se o ticket foi alterado por outro usuário
+	 */
+	Ticket changeStatus(String id, StatusEnum status, User userChange, Long version);
+	
+	/**
+	 * Remove o ticket, descontando dos contadores o status que o documento removido realmente tinha.
+	 * @param id
+	 * @return ticket removido, ou null se ele não existir (inclusive quando outra requisição o removeu antes)
+	 */
+	Ticket delete(String id);
+	
+	Page<TicketItem> listTicket(int page, int count);
 	
 	ChangeStatus createChangeStatus(ChangeStatus changeStatus);
 	
-	Iterable<ChangeStatus> listChangeStatus(String ticketId);
+	/**
+	 * Altera o status de vários tickets, cada um condicionado ao status lido, e grava o histórico em um único insert.
+	 * Tickets não encontrados, cuja transição não é permitida ou alterados por outra requisição são reportados e não são alterados.
+	 * Aprovação e reprovação não são aceitas em lote, pois são decisões do cliente em cada ticket.
+	 * @param ids
+	 * @param status
+	 * @param userChange usuário responsável pela mudança, atribuído aos tickets quando o status é Assigned
+	 * @return resultado de cada id, na ordem recebida
+	 */
+	List<TicketStatusResult> changeStatus(List<String> ids, StatusEnum status, User userChange);
+	
+	/**
+	 * Histórico completo de status do ticket, do mais recente para o mais antigo.
+	 * @param ticketId
+	 * @return
+	 */
+	List<ChangeStatus> listChangeStatus(String ticketId);
 	
-	Page<Ticket> findByCurrentUser(int page, int count, String userId);
+	/**
+	 * Histórico exibido na consulta do ticket: as mudanças embutidas no documento, ou o histórico completo
+	 * para tickets que ainda não possuem o histórico embutido.
+	 * @param ticket
+	 * @return
+	 */
+	List<ChangeStatus> findRecentChanges(Ticket ticket);
 	
-	Page<Ticket> findByParameters(int page, int count, String title, String status, String priority);
+	Page<TicketItem> findByCurrentUser(int page, int count, String userId);
 	
-	Page<Ticket> findByParametersAndCurrentUser(int page, int count, String title, String status, String priority, String userId);
+	Page<TicketItem> findByParameters(int page, int count, String title, String status, String priority);
 	
-	Page<Ticket> findByNumber(int page, int count, Integer number);
+	Page<TicketItem> findByParametersAndCurrentUser(int page, int count, String title, String status, String priority, String userId);
+	
+	Page<TicketItem> findByNumber(int page, int count, Integer number);
 	
 	Iterable<Ticket> findAll();
 	
-	Page<Ticket> findByParametersAndAssignedUser(int page, int count, String title, String status, String priority, String assignedUserId);
+	Page<TicketItem> findByParametersAndAssignedUser(int page, int count, String title, String status, String priority, String assignedUserId);
+	
+	/**
+	 * Paginação por cursor: busca a fatia seguinte ao cursor informado, sem consulta de total.
+	 * @param filter
+	 * @param cursor cursor retornado na fatia anterior, ou null para a primeira fatia
+	 * @param count tamanho da fatia, limitado a helpdesk.ticket.cursor.max-count
+	 * @return
+	 * @throws IllegalArgumentException se o cursor for inválido ou count for menor que 1
+	 */
+	CursorSlice<TicketItem> findByCursor(TicketFilter filter, String cursor, int count);
+	
+	Page<TicketItem> search(int page, int count, String text, TicketFilter filter);
+	
+	Summary findSummary();
+	
+	/**
+	 * Recalcula os contadores dos resumos a partir dos tickets, corrigindo qualquer diferença acumulada.
+	 * @return resumo geral recalculado
+	 */
+	Summary rebuildSummary();
+	
+	Summary findSummaryByUser(String userId);
+	
+	Summary findSummaryByAssignedUser(String assignedUserId);
 }
@@ -1,7 +1,11 @@
 package com.helpdesk.api.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 
+import com.helpdesk.api.dto.CacheStatistics;
 import com.helpdesk.api.entity.User;
 
 public interface UserService {
@@ -12,7 +16,16 @@ public interface UserService {
 	
 	User findById(String id);
 	
+	/**
+	 * Busca vários usuários de uma só vez, consultando no banco apenas os que não estão em cache.
+	 * @param ids
+	 * @return usuários encontrados, indexados pelo id
+	 */
+	Map<String, User> findAllById(Collection<String> ids);
+	
 	void delete(String id);
 	
 	Page<User> findAll(int page, int count);
+	
+	Map<String, CacheStatistics> cacheStatistics();
 }
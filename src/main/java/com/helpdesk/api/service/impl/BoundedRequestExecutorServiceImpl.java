@@ -0,0 +1,310 @@
+package com.helpdesk.api.service.impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.helpdesk.api.enums.EndpointClassEnum;
+import com.helpdesk.api.metrics.RequestTags;
+import com.helpdesk.api.metrics.TimedJackson2HttpMessageConverter;
+import com.helpdesk.api.service.RequestExecutorService;
+import com.helpdesk.api.util.RequestContextUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Um pool fixo por classe de endpoint, com fila limitada. A admissão é feita antes de iniciar o processamento assíncrono:
+ * acima de threads + fila a requisição é recusada com 503, em vez de esperar sem limite por uma thread.
+ *
+ */
+@Service
+public class BoundedRequestExecutorServiceImpl implements RequestExecutorService {
+	
+	private static final String ADMISSION_ATTRIBUTE = BoundedRequestExecutorServiceImpl.class.getName() + ".admission";
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Value("${helpdesk.executor.enabled:true}")
+	private boolean enabled;
+	
+	@Autowired
+	private Environment environment;
+	
+	@Autowired
+	private MeterRegistry registry;
+	
+	private final Map<EndpointClassEnum, Lane> lanes = new EnumMap<>(EndpointClassEnum.class);
+	
+	//Com o modo desligado o handler roda na própria thread do Tomcat, como antes
+	private final AsyncTaskExecutor callerThread = new ConcurrentTaskExecutor(Runnable::run);
+	
+	//Executor padrão do Spring MVC, usado pelas tarefas assíncronas sem classe de endpoint
+	private final AsyncTaskExecutor defaultExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
+	
+	private final AsyncTaskExecutor streamExecutor = new StreamExecutor();
+	
+	@PostConstruct
+	public void init() {
+		if (!enabled) {
+			logger.info("HelpDesk-API | request executors disabled, handlers run on the container threads");
+			return;
+		}
+		for (EndpointClassEnum endpointClass : EndpointClassEnum.values()) {
+			String prefix = "helpdesk.executor." + endpointClass.getName();
+			int threads = environment.getProperty(prefix + ".threads", Integer.class, endpointClass.getThreads());
+			int queue = environment.getProperty(prefix + ".queue", Integer.class, endpointClass.getQueue());
+			long timeout = environment.getProperty(prefix + ".timeout", Long.class, endpointClass.getTimeout());
+			
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setThreadNamePrefix("request-" + endpointClass.getName() + "-");
+			executor.setCorePoolSize(threads);
+			executor.setMaxPoolSize(threads);
+			//A permissão é devolvida um pouco antes da thread voltar ao pool, ou no fim da requisição assíncrona enquanto uma tarefa
+			//cancelada por timeout ainda ocupa a thread, então a fila tem uma folga de uma vaga por thread
+			executor.setQueueCapacity(queue + threads);
+			executor.initialize();
+			
+			Tags tags = Tags.of("class", endpointClass.getName());
+			new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "request-" + endpointClass.getName(), tags).bindTo(registry);
+			this.lanes.put(endpointClass, new Lane(endpointClass, executor, new Semaphore(threads + queue), timeout,
+					registry.counter("helpdesk.executor.rejected", tags)));
+			logger.info("HelpDesk-API | request executor " + endpointClass.getName() + ": " + threads + " threads, queue " + queue
+					+ ", timeout " + timeout + "ms");
+		}
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		this.lanes.values().forEach(lane -> lane.executor.shutdown());
+	}
+	
+	@Override
+	public <T> WebAsyncTask<T> submit(EndpointClassEnum endpointClass, Callable<T> task) {
+		if (!enabled) {
+			return new WebAsyncTask<T>(null, this.callerThread, task);
+		}
+		Lane lane = this.lanes.get(endpointClass);
+		return new WebAsyncTask<T>(lane.timeout, admit(lane), task);
+	}
+	
+	@Override
+	public StreamingResponseBody stream(EndpointClassEnum endpointClass, StreamingResponseBody body) {
+		if (enabled) {
+			//O corpo é executado pelo streamExecutor, que encontra a admissão da requisição
+			admit(this.lanes.get(endpointClass));
+		}
+		//Essas respostas não passam pelo conversor JSON, então o tempo de escrita é registrado aqui na mesma métrica
+		Timer timer = Timer.builder(TimedJackson2HttpMessageConverter.METRIC)
+				.description("Time spent writing JSON responses")
+				.tag("uri", RequestTags.uri())
+				.register(this.registry);
+		return out -> {
+			Timer.Sample sample = Timer.start(this.registry);
+			try {
+				body.writeTo(out);
+			} finally {
+				sample.stop(timer);
+			}
+		};
+	}
+	
+	@Override
+	public AsyncTaskExecutor streamExecutor() {
+		return this.streamExecutor;
+	}
+	
+	@Override
+	public void release(RequestAttributes request) {
+		Admission admission = (Admission) request.getAttribute(ADMISSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (admission != null) {
+			admission.release();
+		}
+	}
+	
+	/**
+	 * Reserva uma vaga na classe do endpoint e registra a admissão na requisição, para que ela seja devolvida
+	 * ao fim da requisição mesmo que a tarefa nunca chegue ao pool.
+	 */
+	private Admission admit(Lane lane) {
+		if (!lane.permits.tryAcquire()) {
+			lane.rejected.increment();
+			throw new TaskRejectedException("Too many " + lane.endpointClass.getName() + " requests in progress, try again later");
+		}
+		Admission admission = new Admission(lane);
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.setAttribute(ADMISSION_ATTRIBUTE, admission, RequestAttributes.SCOPE_REQUEST);
+		}
+		return admission;
+	}
+	
+	/**
+	 * Executor das tarefas assíncronas sem executor próprio, como os StreamingResponseBody. O Spring MVC submete a tarefa
+	 * na thread da requisição, então a admissão feita em {@link #stream} é encontrada nos atributos da requisição.
+	 */
+	private class StreamExecutor implements AsyncTaskExecutor {
+		
+		private AsyncTaskExecutor target() {
+			RequestAttributes request = RequestContextHolder.getRequestAttributes();
+			Admission admission = request != null
+					? (Admission) request.getAttribute(ADMISSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+			return admission != null ? admission : defaultExecutor;
+		}
+		
+		@Override
+		public void execute(Runnable task) {
+			target().execute(task);
+		}
+		
+		@Override
+		public void execute(Runnable task, long startTimeout) {
+			target().execute(task, startTimeout);
+		}
+		
+		@Override
+		public Future<?> submit(Runnable task) {
+			return target().submit(task);
+		}
+		
+		@Override
+		public <T> Future<T> submit(Callable<T> task) {
+			return target().submit(task);
+		}
+	}
+	
+	/**
+	 * Executor e limite de uma classe de endpoint.
+	 */
+	private static class Lane {
+		
+		private final EndpointClassEnum endpointClass;
+		
+		private final ThreadPoolTaskExecutor executor;
+		
+		private final Semaphore permits;
+		
+		private final long timeout;
+		
+		private final Counter rejected;
+		
+		Lane(EndpointClassEnum endpointClass, ThreadPoolTaskExecutor executor, Semaphore permits, long timeout, Counter rejected) {
+			this.endpointClass = endpointClass;
+			this.executor = executor;
+			this.permits = permits;
+			this.timeout = timeout;
+			this.rejected = rejected;
+		}
+	}
+	
+	/**
+	 * Vaga reservada por uma requisição. A permissão volta uma única vez: quando a tarefa termina, quando o pool a recusa
+	 * ou quando a requisição termina (timeout, cliente desconectado ou erro antes de a tarefa rodar).
+	 */
+	private static class Admission implements AsyncTaskExecutor {
+		
+		private final Lane lane;
+		
+		private final AtomicBoolean released = new AtomicBoolean();
+		
+		Admission(Lane lane) {
+			this.lane = lane;
+		}
+		
+		void release() {
+			if (this.released.compareAndSet(false, true)) {
+				this.lane.permits.release();
+			}
+		}
+		
+		//A tarefa também recebe a requisição, usada nas tags das métricas medidas na thread do pool
+		private Runnable releasing(Runnable task) {
+			Runnable propagated = RequestContextUtil.propagate(task);
+			return () -> {
+				try {
+					propagated.run();
+				} finally {
+					release();
+				}
+			};
+		}
+		
+		private <T> Callable<T> releasing(Callable<T> task) {
+			Callable<T> propagated = RequestContextUtil.propagate(task);
+			return () -> {
+				try {
+					return propagated.call();
+				} finally {
+					release();
+				}
+			};
+		}
+		
+		@Override
+		public void execute(Runnable task) {
+			try {
+				this.lane.executor.execute(releasing(task));
+			} catch (TaskRejectedException e) {
+				throw rejected(e);
+			}
+		}
+		
+		@Override
+		public void execute(Runnable task, long startTimeout) {
+			try {
+				this.lane.executor.execute(releasing(task), startTimeout);
+			} catch (TaskRejectedException e) {
+				throw rejected(e);
+			}
+		}
+		
+		@Override
+		public Future<?> submit(Runnable task) {
+			try {
+				return this.lane.executor.submit(releasing(task));
+			} catch (TaskRejectedException e) {
+				throw rejected(e);
+			}
+		}
+		
+		@Override
+		public <T> Future<T> submit(Callable<T> task) {
+			try {
+				return this.lane.executor.submit(releasing(task));
+			} catch (TaskRejectedException e) {
+				throw rejected(e);
+			}
+		}
+		
+		private TaskRejectedException rejected(TaskRejectedException e) {
+			release();
+			this.lane.rejected.increment();
+			return e;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.helpdesk.api.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+
+import javax.annotation.PostConstruct;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.stereotype.Service;
+
+import com.helpdesk.api.dto.Attachment;
+import com.helpdesk.api.service.AttachmentService;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+
+@Service
+public class GridFsAttachmentServiceImpl implements AttachmentService {
+
+	private static final String CONTENT_TYPE = "_contentType";
+	
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+	
+	@Autowired
+	private MongoDbFactory mongoDbFactory;
+	
+	@Value("${helpdesk.attachment.bucket:attachment}")
+	private String bucketName;
+	
+	private GridFSBucket bucket;
+	
+	@PostConstruct
+	public void init() {
+		this.bucket = GridFSBuckets.create(this.mongoDbFactory.getDb(), this.bucketName);
+	}
+
+	@Override
+	public String storeDataUrl(String dataUrl) {
+		String contentType = DEFAULT_CONTENT_TYPE;
+		String data = dataUrl;
+		//Formato data:[<mime type>][;base64],<dados>
+		if (dataUrl.startsWith("data:")) {
+			int separator = dataUrl.indexOf(',');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Image is not a valid data URL");
+			}
+			String header = dataUrl.substring("data:".length(), separator);
+			int parameters = header.indexOf(';');
+			String mimeType = parameters >= 0 ? header.substring(0, parameters) : header;
+			if (!mimeType.isEmpty()) {
+				contentType = mimeType;
+			}
+			data = dataUrl.substring(separator + 1);
+		}
+		return store(Base64.getMimeDecoder().decode(data), contentType);
+	}
+
+	@Override
+	public String store(byte[] content, String contentType) {
+		GridFSUploadOptions options = new GridFSUploadOptions()
+				.metadata(new Document(CONTENT_TYPE, contentType != null ? contentType : DEFAULT_CONTENT_TYPE));
+		ObjectId id = this.bucket.uploadFromStream("ticket-attachment", new ByteArrayInputStream(content), options);
+		return id.toHexString();
+	}
+
+	@Override
+	public Attachment findById(String id) {
+		if (id == null || !ObjectId.isValid(id)) {
+			return null;
+		}
+		GridFSFile file = this.bucket.find(Filters.eq("_id", new ObjectId(id))).first();
+		if (file == null) {
+			return null;
+		}
+		String contentType = file.getMetadata() != null ? file.getMetadata().getString(CONTENT_TYPE) : null;
+		return new Attachment(id, contentType != null ? contentType : DEFAULT_CONTENT_TYPE, file.getLength(),
+				new GridFsFileResource(file, this.bucket));
+	}
+
+	@Override
+	public void delete(String id) {
+		if (id != null && ObjectId.isValid(id)) {
+			try {
+				this.bucket.delete(new ObjectId(id));
+			} catch (MongoGridFSException e) {
+				//Arquivo já removido
+			}
+		}
+	}
+	
+	/**
+	 * Abre um novo stream do GridFS a cada leitura. Uma requisição com vários intervalos (Range) lê o arquivo uma vez por intervalo,
+	 * o que não é possível com um único stream.
+	 */
+	private static class GridFsFileResource extends AbstractResource {
+		
+		private final GridFSFile file;
+		private final GridFSBucket bucket;
+		
+		GridFsFileResource(GridFSFile file, GridFSBucket bucket) {
+			this.file = file;
+			this.bucket = bucket;
+		}
+		
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return this.bucket.openDownloadStream(this.file.getObjectId());
+		}
+		
+		@Override
+		public long contentLength() throws IOException {
+			return this.file.getLength();
+		}
+		
+		@Override
+		public String getFilename() {
+			return this.file.getFilename();
+		}
+		
+		@Override
+		public String getDescription() {
+			return "GridFS file " + this.file.getObjectId().toHexString();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.helpdesk.api.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.helpdesk.api.entity.Sequence;
+import com.helpdesk.api.service.RevisionService;
+
+/**
+ * Revisões guardadas como contadores na coleção sequence, compartilhadas por todas as instâncias da aplicação.
+ *
+ */
+@Service
+public class RevisionServiceImpl implements RevisionService {
+	
+	private static final String PREFIX = "revision.";
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Override
+	public void increment(String name) {
+		this.mongoTemplate.upsert(Query.query(Criteria.where("id").is(PREFIX + name)), new Update().inc("value", 1), Sequence.class);
+	}
+
+	@Override
+	public Map<String, Long> current(String... names) {
+		List<String> ids = Arrays.stream(names).map(name -> PREFIX + name).collect(Collectors.toList());
+		Map<String, Long> revisions = new HashMap<>();
+		Arrays.stream(names).forEach(name -> revisions.put(name, 0L));
+		for (Sequence sequence : this.mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Sequence.class)) {
+			revisions.put(sequence.getId().substring(PREFIX.length()), sequence.getValue());
+		}
+		return revisions;
+	}
+}
@@ -0,0 +1,208 @@
+package com.helpdesk.api.service.impl;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.helpdesk.api.dto.TicketEvent;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.ProfileEnum;
+import com.helpdesk.api.service.TicketEventService;
+
+/**
+ * Distribui os eventos de ticket pelas conexões SSE abertas. Cada conexão tem uma fila limitada, esvaziada por um pool
+ * fixo de threads: quem publica nunca espera pela rede, e a conexão cuja fila enche (cliente lento) é encerrada
+ * para que o navegador reconecte e recarregue a lista.
+ *
+ */
+@Service
+public class SseTicketEventServiceImpl implements TicketEventService {
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Value("${helpdesk.events.max-connections:1000}")
+	private int maxConnections;
+	
+	@Value("${helpdesk.events.buffer-size:100}")
+	private int bufferSize;
+	
+	@Value("${helpdesk.events.threads:4}")
+	private int threads;
+	
+	@Value("${helpdesk.events.timeout:1800000}")
+	private long timeout;
+	
+	@Value("${helpdesk.events.heartbeat:30}")
+	private long heartbeat;
+	
+	private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+	
+	private final AtomicInteger connections = new AtomicInteger();
+	
+	private ThreadPoolExecutor sender;
+	
+	private ScheduledExecutorService heartbeatScheduler;
+	
+	@PostConstruct
+	public void init() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ticket-events-");
+		threadFactory.setDaemon(true);
+		//Cada conexão tem no máximo uma tarefa pendente, então a fila do pool é limitada pelo número de conexões
+		this.sender = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxConnections), threadFactory);
+		this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.SECONDS);
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		this.heartbeatScheduler.shutdownNow();
+		this.sender.shutdownNow();
+		this.subscriptions.forEach(Subscription::close);
+	}
+	
+	@Override
+	public SseEmitter subscribe(User user, boolean assigned) {
+		//A vaga é reservada antes de abrir a conexão, para que assinaturas simultâneas não ultrapassem o limite
+		if (this.connections.incrementAndGet() > maxConnections) {
+			this.connections.decrementAndGet();
+			throw new IllegalStateException("Event connection limit reached");
+		}
+		try {
+			SseEmitter emitter = new SseEmitter(timeout);
+			Subscription subscription = new Subscription(user, assigned, emitter);
+			emitter.onCompletion(() -> remove(subscription));
+			emitter.onTimeout(subscription::close);
+			this.subscriptions.add(subscription);
+			return emitter;
+		} catch (RuntimeException e) {
+			this.connections.decrementAndGet();
+			throw e;
+		}
+	}
+	
+	//Libera a vaga apenas na primeira remoção da assinatura
+	private void remove(Subscription subscription) {
+		if (this.subscriptions.remove(subscription)) {
+			this.connections.decrementAndGet();
+		}
+	}
+	
+	@Override
+	public void publish(TicketEvent event) {
+		for (Subscription subscription : this.subscriptions) {
+			if (subscription.accepts(event)) {
+				subscription.offer(SseEmitter.event().name(event.getType().name()).data(event));
+			}
+		}
+	}
+	
+	@Override
+	public boolean hasSubscribers() {
+		return !this.subscriptions.isEmpty();
+	}
+	
+	//Mantém a conexão aberta em proxies e detecta clientes desconectados
+	private void heartbeat() {
+		this.subscriptions.forEach(subscription -> subscription.offer(SseEmitter.event().comment("ping")));
+	}
+	
+	private class Subscription {
+		
+		private final User user;
+		private final boolean assigned;
+		private final SseEmitter emitter;
+		private final BlockingQueue<SseEventBuilder> queue;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile boolean closed;
+		
+		Subscription(User user, boolean assigned, SseEmitter emitter) {
+			this.user = user;
+			this.assigned = assigned;
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(bufferSize);
+		}
+		
+		boolean accepts(TicketEvent event) {
+			if (this.user.getProfile() == ProfileEnum.ROLE_CUSTOMER) {
+				return this.user.getId().equals(event.getUserId());
+			}
+			//Na reatribuição, o técnico anterior também recebe o evento para retirar o ticket da sua lista
+			if (this.user.getProfile() == ProfileEnum.ROLE_TECHNICIAN && this.assigned) {
+				return this.user.getId().equals(event.getAssigneUserId()) || this.user.getId().equals(event.getPreviousAssigneUserId());
+			}
+			return true;
+		}
+		
+		void offer(SseEventBuilder event) {
+			if (this.closed) {
+				return;
+			}
+			if (!this.queue.offer(event)) {
+				logger.warn("HelpDesk-API | event buffer full for " + this.user.getEmail() + ", closing the connection");
+				close();
+				return;
+			}
+			schedule();
+		}
+		
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					sender.execute(this::drain);
+				} catch (RejectedExecutionException e) {
+					this.scheduled.set(false);
+					close();
+				}
+			}
+		}
+		
+		private void drain() {
+			try {
+				SseEventBuilder event;
+				while (!this.closed && (event = this.queue.poll()) != null) {
+					this.emitter.send(event);
+				}
+			} catch (IOException | IllegalStateException e) {
+				//Cliente desconectado
+				close();
+			} finally {
+				this.scheduled.set(false);
+			}
+			if (!this.closed && !this.queue.isEmpty()) {
+				schedule();
+			}
+		}
+		
+		void close() {
+			this.closed = true;
+			this.queue.clear();
+			remove(this);
+			try {
+				this.emitter.complete();
+			} catch (IllegalStateException e) {
+				//Conexão já encerrada
+			}
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package com.helpdesk.api.service.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.TicketCounter;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketCounterService;
+import com.helpdesk.api.util.ReferenceUtil;
+import com.mongodb.DBRef;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+
+@Service
+public class TicketCounterServiceImpl implements TicketCounterService {
+	
+	private static final String LOCK_COLLECTION = "lock";
+	
+	private static final String REBUILD_LOCK = "ticket-counters-rebuild";
+	
+	private static final int DUPLICATE_KEY = 11000;
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private RevisionService revisionService;
+	
+	@Value("${helpdesk.ticket.counters.rebuild-enabled:true}")
+	private boolean rebuildEnabled;
+	
+	@Value("${helpdesk.ticket.counters.rebuild-lock:3600}")
+	private long rebuildLock;
+	
+	//Na primeira execução os contadores ainda não existem e são calculados a partir dos tickets já cadastrados
+	@EventListener(ApplicationReadyEvent.class)
+	public void init() {
+		if (!this.mongoTemplate.exists(byId(TicketCounter.ALL), TicketCounter.class)) {
+			rebuild();
+		}
+	}
+	
+	/**
+	 * Os contadores são atualizados por deltas, então qualquer escrita perdida no meio do caminho só é corrigida
+	 * recalculando tudo a partir dos tickets.
+	 */
+	@Scheduled(cron = "${helpdesk.ticket.counters.rebuild-cron:0 0 3 * * *}")
+	public void scheduledRebuild() {
+		if (this.rebuildEnabled && lockRebuild()) {
+			rebuild();
+		}
+	}
+	
+	/**
+	 * Todas as instâncias disparam o agendamento no mesmo horário: apenas a que obtém o lock no banco faz o recálculo.
+	 * O lock não é liberado ao terminar, e sim quando expira, para que instâncias com o relógio um pouco atrasado não repitam o recálculo.
+	 */
+	private boolean lockRebuild() {
+		Date now = new Date();
+		try {
+			this.mongoTemplate.getCollection(LOCK_COLLECTION).findOneAndUpdate(
+					Filters.and(Filters.eq("_id", REBUILD_LOCK), Filters.lt("lockedUntil", now)),
+					Updates.set("lockedUntil", new Date(now.getTime() + TimeUnit.SECONDS.toMillis(this.rebuildLock))),
+					new FindOneAndUpdateOptions().upsert(true));
+			return true;
+		} catch (MongoCommandException e) {
+			if (e.getErrorCode() == DUPLICATE_KEY) {
+				//Lock de outra instância ainda válido
+				return false;
+			}
+			throw e;
+		}
+	}
+	
+	@Override
+	public void update(Ticket before, Ticket after) {
+		Map<String, Map<String, Long>> deltas = new HashMap<>();
+		collect(deltas, before, -1);
+		collect(deltas, after, 1);
+		apply(deltas);
+	}
+	
+	@Override
+	public void updateAll(Collection<Ticket> before, Collection<Ticket> after) {
+		Map<String, Map<String, Long>> deltas = new HashMap<>();
+		before.forEach(ticket -> collect(deltas, ticket, -1));
+		after.forEach(ticket -> collect(deltas, ticket, 1));
+		apply(deltas);
+	}
+	
+	private void apply(Map<String, Map<String, Long>> deltas) {
+		BulkOperations operations = this.mongoTemplate.bulkOps(BulkMode.UNORDERED, TicketCounter.class);
+		boolean changed = false;
+		for (Map.Entry<String, Map<String, Long>> scope : deltas.entrySet()) {
+			Update update = new Update();
+			for (Map.Entry<String, Long> amount : scope.getValue().entrySet()) {
+				if (amount.getValue() != 0) {
+					update.inc("amounts." + amount.getKey(), amount.getValue());
+				}
+			}
+			if (!update.getUpdateObject().isEmpty()) {
+				operations.upsert(byId(scope.getKey()), update);
+				changed = true;
+			}
+		}
+		if (changed) {
+			operations.execute();
+		}
+	}
+	
+	@Override
+	public Summary summary() {
+		return Summary.of(this.mongoTemplate.findById(TicketCounter.ALL, TicketCounter.class));
+	}
+	
+	@Override
+	public Summary summaryByUser(String userId) {
+		return Summary.of(this.mongoTemplate.findById(TicketCounter.userScope(userId), TicketCounter.class));
+	}
+	
+	@Override
+	public Summary summaryByAssignedUser(String userId) {
+		return Summary.of(this.mongoTemplate.findById(TicketCounter.assigneUserScope(userId), TicketCounter.class));
+	}
+	
+	/**
+	 * Recalcula os contadores a partir dos tickets sem sobrescrever as escritas concorrentes: a diferença entre a agregação
+	 * e o contador lido antes dela é aplicada com $inc, apenas se o contador não mudou desde a leitura. Os escopos alterados
+	 * no meio do recálculo ficam para a próxima execução.
+	 */
+	@Override
+	public void rebuild() {
+		Map<String, Map<String, Long>> snapshot = new HashMap<>();
+		this.mongoTemplate.findAll(TicketCounter.class).forEach(counter -> snapshot.put(counter.getId(), counter.getAmounts()));
+		
+		List<Document> pipeline = Collections.singletonList(new Document("$group",
+				new Document("_id", new Document("status", "$status").append("user", "$user").append("assigneUser", "$assigneUser"))
+						.append("count", new Document("$sum", 1))));
+		
+		Map<String, Map<String, Long>> amounts = new HashMap<>();
+		amounts.put(TicketCounter.ALL, new HashMap<>());
+		for (Document group : this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Ticket.class)).aggregate(pipeline)) {
+			Document key = (Document) group.get("_id");
+			String status = key.getString("status");
+			if (status == null) {
+				continue;
+			}
+			long count = ((Number) group.get("count")).longValue();
+			add(amounts, TicketCounter.ALL, status, count);
+			String userId = referenceId(key.get("user"));
+			if (userId != null) {
+				add(amounts, TicketCounter.userScope(userId), status, count);
+			}
+			String assigneUserId = referenceId(key.get("assigneUser"));
+			if (assigneUserId != null) {
+				add(amounts, TicketCounter.assigneUserScope(assigneUserId), status, count);
+			}
+		}
+		
+		Set<String> scopes = new HashSet<>(snapshot.keySet());
+		scopes.addAll(amounts.keySet());
+		int corrected = 0;
+		int skipped = 0;
+		for (String scope : scopes) {
+			Boolean result = reconcile(scope, snapshot.get(scope), amounts.get(scope));
+			if (result == null) {
+				skipped++;
+			} else if (result) {
+				corrected++;
+			}
+		}
+		if (corrected > 0) {
+			//Os ETags dos resumos usam a revisão dos tickets
+			this.revisionService.increment(RevisionService.TICKET);
+		}
+		logger.info("HelpDesk-API | ticket counters rebuilt: " + scopes.size() + " scopes, " + corrected + " corrected, "
+				+ skipped + " changed during the rebuild");
+	}
+	
+	/**
+	 * Corrige um escopo, condicionado aos valores lidos antes da agregação.
+	 * @return true se corrigido, false se já estava correto, null se o contador mudou desde a leitura
+	 */
+	private Boolean reconcile(String scope, Map<String, Long> before, Map<String, Long> after) {
+		Map<String, Long> previous = before != null ? before : Collections.emptyMap();
+		Set<String> statuses = new HashSet<>(previous.keySet());
+		if (after != null) {
+			statuses.addAll(after.keySet());
+		}
+		Criteria unchanged = Criteria.where("id").is(scope);
+		Update update = new Update();
+		for (String status : statuses) {
+			Long amount = previous.get(status);
+			unchanged = amount != null ? unchanged.and("amounts." + status).is(amount) : unchanged.and("amounts." + status).exists(false);
+			long delta = (after != null ? after.getOrDefault(status, 0L) : 0L) - (amount != null ? amount : 0L);
+			if (delta != 0) {
+				update.inc("amounts." + status, delta);
+			}
+		}
+		//Escopo sem tickets: o contador é removido
+		if (after == null) {
+			return this.mongoTemplate.remove(Query.query(unchanged), TicketCounter.class).getDeletedCount() > 0 ? Boolean.TRUE : null;
+		}
+		if (update.getUpdateObject().isEmpty()) {
+			return false;
+		}
+		try {
+			UpdateResult result = before != null
+					? this.mongoTemplate.updateFirst(Query.query(unchanged), update, TicketCounter.class)
+					: this.mongoTemplate.upsert(Query.query(unchanged), update, TicketCounter.class);
+			return result.getMatchedCount() > 0 || result.getUpsertedId() != null ? Boolean.TRUE : null;
+		} catch (DuplicateKeyException e) {
+			//O escopo foi criado por uma escrita durante o recálculo
+			return null;
+		}
+	}
+	
+	private void collect(Map<String, Map<String, Long>> deltas, Ticket ticket, long delta) {
+		if (ticket == null || ticket.getStatus() == null) {
+			return;
+		}
+		String status = ticket.getStatus().name();
+		add(deltas, TicketCounter.ALL, status, delta);
+		String userId = ReferenceUtil.idOf(ticket.getUser());
+		if (userId != null) {
+			add(deltas, TicketCounter.userScope(userId), status, delta);
+		}
+		String assigneUserId = ReferenceUtil.idOf(ticket.getAssigneUser());
+		if (assigneUserId != null) {
+			add(deltas, TicketCounter.assigneUserScope(assigneUserId), status, delta);
+		}
+	}
+	
+	private void add(Map<String, Map<String, Long>> amounts, String scope, String status, long delta) {
+		amounts.computeIfAbsent(scope, key -> new HashMap<>()).merge(status, delta, Long::sum);
+	}
+	
+	private String referenceId(Object reference) {
+		if (reference instanceof DBRef) {
+			return ((DBRef) reference).getId().toString();
+		}
+		if (reference instanceof Document) {
+			Object id = ((Document) reference).get("$id");
+			return id != null ? id.toString() : null;
+		}
+		return null;
+	}
+	
+	private Query byId(String id) {
+		return Query.query(Criteria.where("id").is(id));
+	}
+
+}
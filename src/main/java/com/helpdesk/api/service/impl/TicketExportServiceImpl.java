@@ -0,0 +1,300 @@
+package com.helpdesk.api.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.ExportFormatEnum;
+import com.helpdesk.api.repository.TicketRepository;
+import com.helpdesk.api.service.TicketExportService;
+import com.helpdesk.api.service.UserService;
+import com.helpdesk.api.util.ReferenceUtil;
+
+@Service
+public class TicketExportServiceImpl implements TicketExportService {
+
+	private static final String CSV_HEADER = "id,number,title,status,priority,date,userEmail,assigneUserEmail";
+	
+	@Autowired
+	private TicketRepository ticketRepository;
+	
+	@Autowired
+	private UserService userService;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Value("${helpdesk.ticket.export.batch-size:500}")
+	private int batchSize;
+	
+	@Override
+	public long export(TicketFilter filter, ExportFormatEnum format, OutputStream out) throws IOException {
+		ItemWriter writer = format == ExportFormatEnum.CSV ? new CsvItemWriter(out) : new NdjsonItemWriter(out);
+		long exported = 0;
+		List<Ticket> batch = new ArrayList<>(batchSize);
+		try (CloseableIterator<Ticket> tickets = this.ticketRepository.streamByFilter(filter)) {
+			while (tickets.hasNext()) {
+				batch.add(tickets.next());
+				if (batch.size() == batchSize) {
+					exported += write(batch, writer);
+				}
+			}
+			exported += write(batch, writer);
+		}
+		writer.close();
+		return exported;
+	}
+	
+	@Override
+	public long writePage(TicketFilter filter, Pageable pages, OutputStream out) throws IOException {
+		return writePage(this.ticketRepository.countByFilter(filter),
+				() -> this.ticketRepository.streamByFilter(filter, pages), pages, out);
+	}
+	
+	@Override
+	public long writeSearchPage(String text, TicketFilter filter, Pageable pages, OutputStream out) throws IOException {
+		return writePage(this.ticketRepository.countSearch(text, filter),
+				() -> this.ticketRepository.streamSearch(text, filter, pages), pages, out);
+	}
+	
+	private long writePage(long total, Supplier<CloseableIterator<Ticket>> cursor, Pageable pages, OutputStream out) throws IOException {
+		PageItemWriter writer = new PageItemWriter(out);
+		int written = 0;
+		List<Ticket> batch = new ArrayList<>(Math.min(batchSize, pages.getPageSize()));
+		try (CloseableIterator<Ticket> tickets = cursor.get()) {
+			while (tickets.hasNext()) {
+				batch.add(tickets.next());
+				if (batch.size() == batchSize) {
+					written += write(batch, writer);
+				}
+			}
+			written += write(batch, writer);
+		}
+		writer.close(pages, total, written);
+		return written;
+	}
+	
+	/**
+	 * Escreve o lote com uma única busca dos usuários referenciados e o descarta em seguida.
+	 */
+	private int write(List<Ticket> batch, ItemWriter writer) throws IOException {
+		int size = batch.size();
+		if (size == 0) {
+			return 0;
+		}
+		Set<String> userIds = new HashSet<>();
+		for (Ticket ticket : batch) {
+			userIds.add(ReferenceUtil.idOf(ticket.getUser()));
+			userIds.add(ReferenceUtil.idOf(ticket.getAssigneUser()));
+		}
+		Map<String, User> users = this.userService.findAllById(userIds);
+		for (Ticket ticket : batch) {
+			writer.write(TicketItem.of(ticket, users));
+		}
+		writer.flush();
+		batch.clear();
+		return size;
+	}
+	
+	private interface ItemWriter {
+		
+		void write(TicketItem item) throws IOException;
+		
+		void flush() throws IOException;
+		
+		void close() throws IOException;
+	}
+	
+	/**
+	 * Um objeto JSON por linha, escrito pelo gerador de streaming do Jackson.
+	 */
+	private class NdjsonItemWriter implements ItemWriter {
+		
+		private final JsonGenerator generator;
+		private final ObjectWriter itemWriter;
+		
+		NdjsonItemWriter(OutputStream out) throws IOException {
+			this.generator = objectMapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+					.setRootValueSeparator(null);
+			this.itemWriter = objectMapper.writerFor(TicketItem.class)
+					.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		}
+		
+		@Override
+		public void write(TicketItem item) throws IOException {
+			this.itemWriter.writeValue(this.generator, item);
+			this.generator.writeRaw('\n');
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			this.generator.flush();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			this.generator.close();
+		}
+	}
+	
+	/**
+	 * Envelope {"data": {"content": [...], metadados da página}, "errors": []} escrito pelo gerador de streaming do Jackson.
+	 * O conteúdo é escrito primeiro e os metadados só no fechamento, quando a quantidade de tickets da página já é conhecida.
+	 */
+	private class PageItemWriter implements ItemWriter {
+		
+		private final JsonGenerator generator;
+		private final ObjectWriter itemWriter;
+		
+		PageItemWriter(OutputStream out) throws IOException {
+			this.generator = objectMapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			this.itemWriter = objectMapper.writerFor(TicketItem.class)
+					.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			this.generator.writeStartObject();
+			this.generator.writeObjectFieldStart("data");
+			this.generator.writeArrayFieldStart("content");
+		}
+		
+		@Override
+		public void write(TicketItem item) throws IOException {
+			this.itemWriter.writeValue(this.generator, item);
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			this.generator.flush();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			this.generator.close();
+		}
+		
+		/**
+		 * Fecha o conteúdo e escreve os demais campos da página, com os mesmos nomes e regras do {@code PageImpl},
+		 * inclusive o ajuste do total quando a última página vem incompleta.
+		 */
+		void close(Pageable pages, long total, int written) throws IOException {
+			long totalElements = written > 0 && pages.getOffset() + pages.getPageSize() > total ? pages.getOffset() + written : total;
+			int totalPages = pages.getPageSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) pages.getPageSize());
+			this.generator.writeEndArray();
+			this.generator.writeObjectFieldStart("pageable");
+			writeSort(pages.getSort());
+			this.generator.writeNumberField("offset", pages.getOffset());
+			this.generator.writeNumberField("pageSize", pages.getPageSize());
+			this.generator.writeNumberField("pageNumber", pages.getPageNumber());
+			this.generator.writeBooleanField("paged", pages.isPaged());
+			this.generator.writeBooleanField("unpaged", pages.isUnpaged());
+			this.generator.writeEndObject();
+			this.generator.writeNumberField("totalPages", totalPages);
+			this.generator.writeNumberField("totalElements", totalElements);
+			this.generator.writeBooleanField("last", pages.getPageNumber() + 1 >= totalPages);
+			this.generator.writeNumberField("size", pages.getPageSize());
+			this.generator.writeNumberField("number", pages.getPageNumber());
+			writeSort(pages.getSort());
+			this.generator.writeNumberField("numberOfElements", written);
+			this.generator.writeBooleanField("first", pages.getPageNumber() == 0);
+			this.generator.writeEndObject();
+			this.generator.writeArrayFieldStart("errors");
+			this.generator.writeEndArray();
+			this.generator.writeEndObject();
+			close();
+		}
+		
+		private void writeSort(Sort sort) throws IOException {
+			this.generator.writeObjectFieldStart("sort");
+			this.generator.writeBooleanField("sorted", sort.isSorted());
+			this.generator.writeBooleanField("unsorted", sort.isUnsorted());
+			this.generator.writeEndObject();
+		}
+	}
+	
+	private static class CsvItemWriter implements ItemWriter {
+		
+		private final Writer writer;
+		private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+		
+		CsvItemWriter(OutputStream out) throws IOException {
+			this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			this.dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+			this.writer.write(CSV_HEADER);
+			this.writer.write("\r\n");
+		}
+		
+		@Override
+		public void write(TicketItem item) throws IOException {
+			this.writer.write(item.getId());
+			this.writer.write(',');
+			this.writer.write(item.getNumber() != null ? item.getNumber().toString() : "");
+			this.writer.write(',');
+			this.writer.write(escape(item.getTitle()));
+			this.writer.write(',');
+			this.writer.write(item.getStatus() != null ? item.getStatus().name() : "");
+			this.writer.write(',');
+			this.writer.write(item.getPriority() != null ? item.getPriority().name() : "");
+			this.writer.write(',');
+			this.writer.write(format(item.getDate()));
+			this.writer.write(',');
+			this.writer.write(escape(item.getUserEmail()));
+			this.writer.write(',');
+			this.writer.write(escape(item.getAssigneUserEmail()));
+			this.writer.write("\r\n");
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			this.writer.flush();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			this.writer.flush();
+		}
+		
+		private String format(Date date) {
+			return date != null ? this.dateFormat.format(date) : "";
+		}
+		
+		/**
+		 * Campos com vírgula, aspas ou quebra de linha são escritos entre aspas, com as aspas duplicadas (RFC 4180).
+		 */
+		private String escape(String value) {
+			if (value == null) {
+				return "";
+			}
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+				return value;
+			}
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package com.helpdesk.api.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.api.dto.TicketImportReport;
+import com.helpdesk.api.dto.TicketImportResult;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.service.AttachmentService;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketCounterService;
+import com.helpdesk.api.service.TicketImportService;
+import com.helpdesk.api.service.TicketNumberService;
+import com.helpdesk.api.service.UserService;
+import com.mongodb.BulkWriteError;
+
+@Service
+public class TicketImportServiceImpl implements TicketImportService {
+	
+	private final Log logger = LogFactory.getLog(this.getClass());
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private UserService userService;
+	
+	@Autowired
+	private TicketNumberService ticketNumberService;
+	
+	@Autowired
+	private TicketCounterService ticketCounterService;
+	
+	@Autowired
+	private AttachmentService attachmentService;
+	
+	@Autowired
+	private RevisionService revisionService;
+	
+	@Value("${helpdesk.ticket.import.batch-size:1000}")
+	private int batchSize;
+	
+	@Value("${helpdesk.ticket.history.embedded:true}")
+	private boolean embeddedHistory;
+	
+	@Override
+	public TicketImportReport importTickets(InputStream in) throws IOException {
+		TicketImportReport report = new TicketImportReport();
+		List<Ticket> tickets = new ArrayList<>(batchSize);
+		List<TicketImportResult> results = new ArrayList<>(batchSize);
+		long index = 0;
+		
+		//O MappingIterator percorre tanto os elementos de um array JSON quanto os objetos de um NDJSON
+		try (MappingIterator<Ticket> records = this.objectMapper.readerFor(Ticket.class).readValues(in)) {
+			while (true) {
+				TicketImportResult result = new TicketImportResult(index++);
+				Ticket ticket;
+				try {
+					if (!records.hasNextValue()) {
+						break;
+					}
+					ticket = records.nextValue();
+				} catch (JsonParseException e) {
+					//Erro de sintaxe: não é possível localizar o próximo registro
+					report.add(result.addError("Invalid JSON: " + e.getOriginalMessage()));
+					break;
+				} catch (JsonMappingException e) {
+					report.add(result.addError("Invalid ticket: " + e.getOriginalMessage()));
+					continue;
+				}
+				
+				validate(ticket, result);
+				report.add(result);
+				if (result.isImported()) {
+					tickets.add(ticket);
+					results.add(result);
+				}
+				if (tickets.size() == batchSize) {
+					insert(tickets, results);
+				}
+			}
+		}
+		insert(tickets, results);
+		
+		report.complete();
+		logger.info("HelpDesk-API | tickets imported: " + report.getImported() + ", failed: " + report.getFailed());
+		return report;
+	}
+	
+	private void validate(Ticket ticket, TicketImportResult result) {
+		if (ticket == null) {
+			result.addError("Ticket no information");
+			return;
+		}
+		if (ticket.getTitle() == null) {
+			result.addError("Title no information");
+		}
+		if (ticket.getUser() == null || (ticket.getUser().getId() == null && ticket.getUser().getEmail() == null)) {
+			result.addError("User no information");
+		}
+	}
+	
+	/**
+	 * Resolve os usuários, numera e grava o lote com um único insert não ordenado. Os registros recusados
+	 * pelo banco são marcados no relatório e não entram nos contadores, e as imagens deles são removidas.
+	 */
+	private void insert(List<Ticket> tickets, List<TicketImportResult> results) {
+		if (tickets.isEmpty()) {
+			return;
+		}
+		resolveUsers(tickets, results);
+		
+		List<Ticket> valid = new ArrayList<>(tickets.size());
+		List<TicketImportResult> validResults = new ArrayList<>(tickets.size());
+		for (int i = 0; i < tickets.size(); i++) {
+			if (results.get(i).isImported()) {
+				valid.add(tickets.get(i));
+				validResults.add(results.get(i));
+			}
+		}
+		
+		List<Integer> numbers = this.ticketNumberService.nextNumbers(valid.size());
+		Date now = new Date();
+		for (int i = 0; i < valid.size(); i++) {
+			Ticket ticket = valid.get(i);
+			ticket.setId(new ObjectId().toHexString());
+			ticket.setNumber(numbers.get(i));
+			ticket.setStatus(ticket.getStatus() != null ? ticket.getStatus() : StatusEnum.New);
+			ticket.setDate(ticket.getDate() != null ? ticket.getDate() : now);
+			ticket.setChanges(null);
+			ticket.setVersion(0L);
+			ticket.setLastModified(now);
+			ticket.setRecentChanges(this.embeddedHistory ? new ArrayList<>() : null);
+			ticket.setScore(null);
+			ticket.setImageId(null);
+			if (ticket.getImage() != null && !ticket.getImage().isEmpty()) {
+				String image = ticket.getImage();
+				ticket.setImage(null);
+				try {
+					ticket.setImageId(this.attachmentService.storeDataUrl(image));
+				} catch (IllegalArgumentException e) {
+					validResults.get(i).addError("Invalid image: " + e.getMessage());
+				} catch (RuntimeException e) {
+					validResults.get(i).addError("Image not saved: " + e.getMessage());
+				}
+			}
+		}
+		
+		//Registros cuja imagem não foi armazenada não são gravados
+		List<Ticket> writable = new ArrayList<>(valid.size());
+		List<TicketImportResult> writableResults = new ArrayList<>(valid.size());
+		for (int i = 0; i < valid.size(); i++) {
+			if (validResults.get(i).isImported()) {
+				writable.add(valid.get(i));
+				writableResults.add(validResults.get(i));
+			}
+		}
+		
+		Set<Integer> rejected = new HashSet<>();
+		if (!writable.isEmpty()) {
+			try {
+				this.mongoTemplate.bulkOps(BulkMode.UNORDERED, Ticket.class).insert(writable).execute();
+			} catch (BulkOperationException e) {
+				for (BulkWriteError error : e.getErrors()) {
+					rejected.add(error.getIndex());
+					writableResults.get(error.getIndex()).addError(error.getMessage());
+				}
+			} catch (RuntimeException e) {
+				//Sem a lista de erros do bulk, apenas os documentos encontrados no banco contam como gravados
+				logger.error("HelpDesk-API | import batch failed: " + e.getMessage(), e);
+				Set<String> written = findWritten(writable);
+				for (int i = 0; i < writable.size(); i++) {
+					if (!written.contains(writable.get(i).getId())) {
+						rejected.add(i);
+						writableResults.get(i).addError("Ticket not saved: " + e.getMessage());
+					}
+				}
+			}
+		}
+		
+		List<Ticket> inserted = new ArrayList<>(writable.size());
+		for (int i = 0; i < writable.size(); i++) {
+			if (rejected.contains(i)) {
+				deleteImage(writable.get(i).getImageId());
+			} else {
+				inserted.add(writable.get(i));
+				writableResults.get(i).setId(writable.get(i).getId());
+				writableResults.get(i).setNumber(writable.get(i).getNumber());
+			}
+		}
+		this.ticketCounterService.updateAll(Collections.emptyList(), inserted);
+		if (!inserted.isEmpty()) {
+			this.revisionService.increment(RevisionService.TICKET);
+		}
+		
+		tickets.clear();
+		results.clear();
+	}
+	
+	/**
+	 * Remove a imagem de um registro não gravado. Uma falha aqui não interrompe o lote, só deixa o arquivo sem referência.
+	 */
+	private void deleteImage(String imageId) {
+		try {
+			this.attachmentService.delete(imageId);
+		} catch (RuntimeException e) {
+			logger.warn("HelpDesk-API | could not delete image " + imageId + " of a ticket not imported: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Ids do lote que estão no banco depois de uma falha do insert. Se nem a consulta for possível,
+	 * nenhum registro é considerado gravado.
+	 */
+	private Set<String> findWritten(List<Ticket> tickets) {
+		List<String> ids = new ArrayList<>(tickets.size());
+		tickets.forEach(ticket -> ids.add(ticket.getId()));
+		Query query = Query.query(Criteria.where("id").in(ids));
+		query.fields().include("id");
+		try {
+			Set<String> written = new HashSet<>();
+			this.mongoTemplate.find(query, Ticket.class).forEach(ticket -> written.add(ticket.getId()));
+			return written;
+		} catch (RuntimeException e) {
+			logger.error("HelpDesk-API | could not check which imported tickets were saved, reporting the batch as failed: " + ids, e);
+			return Collections.emptySet();
+		}
+	}
+	
+	/**
+	 * Os usuários podem ser informados pelo id ou pelo email. Os ids do lote são buscados em uma única consulta.
+	 */
+	private void resolveUsers(List<Ticket> tickets, List<TicketImportResult> results) {
+		Set<String> userIds = new HashSet<>();
+		for (Ticket ticket : tickets) {
+			addId(userIds, ticket.getUser());
+			addId(userIds, ticket.getAssigneUser());
+		}
+		Map<String, User> users = this.userService.findAllById(userIds);
+		for (int i = 0; i < tickets.size(); i++) {
+			Ticket ticket = tickets.get(i);
+			User user = resolve(ticket.getUser(), users);
+			if (user == null) {
+				results.get(i).addError("User not found: " + describe(ticket.getUser()));
+			}
+			ticket.setUser(user);
+			if (ticket.getAssigneUser() != null) {
+				User assigneUser = resolve(ticket.getAssigneUser(), users);
+				if (assigneUser == null) {
+					results.get(i).addError("Assigned user not found: " + describe(ticket.getAssigneUser()));
+				}
+				ticket.setAssigneUser(assigneUser);
+			}
+		}
+	}
+	
+	private void addId(Set<String> userIds, User user) {
+		if (user != null && user.getId() != null) {
+			userIds.add(user.getId());
+		}
+	}
+	
+	private User resolve(User user, Map<String, User> users) {
+		if (user.getId() != null) {
+			return users.get(user.getId());
+		}
+		return user.getEmail() != null ? this.userService.findByEmail(user.getEmail()) : null;
+	}
+	
+	private String describe(User user) {
+		return user.getId() != null ? user.getId() : user.getEmail();
+	}
+}
@@ -0,0 +1,84 @@
+package com.helpdesk.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.helpdesk.api.entity.Sequence;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.service.TicketNumberService;
+
+/**
+ * Gera os números dos tickets a partir de um contador no banco. Cada instância reserva um bloco de números
+ * com um único findAndModify e entrega os números do bloco em memória, sem repetir números entre instâncias.
+ *
+ */
+@Service
+public class TicketNumberServiceImpl implements TicketNumberService {
+
+	private static final String TICKET_SEQUENCE = "ticket";
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Value("${helpdesk.ticket.number.block-size:50}")
+	private int blockSize;
+	
+	private boolean initialized;
+	
+	//Próximo número a ser entregue e limite (exclusivo) do bloco reservado
+	private long next;
+	
+	private long limit;
+
+	@Override
+	public Integer nextNumber() {
+		return nextNumbers(1).get(0);
+	}
+
+	@Override
+	public synchronized List<Integer> nextNumbers(int count) {
+		List<Integer> numbers = new ArrayList<>(count);
+		while (numbers.size() < count) {
+			if (this.next >= this.limit) {
+				reserve(Math.max(this.blockSize, count - numbers.size()));
+			}
+			numbers.add((int) this.next++);
+		}
+		return numbers;
+	}
+	
+	private void reserve(int amount) {
+		if (!this.initialized) {
+			initialize();
+		}
+		Sequence sequence = this.mongoTemplate.findAndModify(byId(), new Update().inc("value", amount),
+				FindAndModifyOptions.options().returnNew(true).upsert(true), Sequence.class);
+		this.limit = sequence.getValue() + 1;
+		this.next = this.limit - amount;
+	}
+	
+	//Os tickets antigos foram numerados aleatoriamente, então o contador começa após o maior número já utilizado
+	private void initialize() {
+		Query query = new Query().with(Sort.by(Direction.DESC, "number")).limit(1);
+		query.fields().include("number");
+		Ticket last = this.mongoTemplate.findOne(query, Ticket.class);
+		long max = last != null && last.getNumber() != null ? last.getNumber() : 0;
+		this.mongoTemplate.upsert(byId(), new Update().max("value", max), Sequence.class);
+		this.initialized = true;
+	}
+	
+	private Query byId() {
+		return Query.query(Criteria.where("id").is(TICKET_SEQUENCE));
+	}
+}
@@ -1,15 +1,67 @@
 package com.helpdesk.api.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.Update.Position;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import com.helpdesk.api.dto.CursorSlice;
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketEvent;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.dto.TicketStatusResult;
 import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.RecentChange;
 import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.enums.TicketEventEnum;
 import com.helpdesk.api.repository.ChangeStatusRepository;
 import com.helpdesk.api.repository.TicketRepository;
+import com.helpdesk.api.service.AttachmentService;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketCounterService;
+import com.helpdesk.api.service.TicketEventService;
 import com.helpdesk.api.service.TicketService;
+import com.helpdesk.api.service.UserService;
+import com.helpdesk.api.util.ReferenceUtil;
+import com.helpdesk.api.util.RequestContextUtil;
 
 @Service
 public class TicketServiceImpl implements TicketService {
@@ -20,27 +72,237 @@ public class TicketServiceImpl implements TicketService {
 	@Autowired
 	private ChangeStatusRepository changeStatusRepository;
 	
+	@Autowired
+	private TicketCounterService ticketCounterService;
+	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
+	@Autowired
+	private AttachmentService attachmentService;
+	
+	@Autowired
+	private UserService userService;
+	
+	@Autowired
+	private TicketEventService ticketEventService;
+	
+	@Autowired
+	private RevisionService revisionService;
+	
+	@Value("${helpdesk.ticket.history.embedded:true}")
+	private boolean embeddedHistory;
+	
+	@Value("${helpdesk.ticket.history.size:10}")
+	private int historySize;
+	
+	@Value("${helpdesk.ticket.read.threads:16}")
+	private int readThreads;
+	
+	@Value("${helpdesk.ticket.cursor.max-count:100}")
+	private int cursorMaxCount;
+	
+	//Leituras independentes da consulta de detalhe, feitas em paralelo
+	private ExecutorService readExecutor;
+	
 	public TicketServiceImpl() {
 	}
+	
+	@PostConstruct
+	public void init() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ticket-reads-");
+		threadFactory.setDaemon(true);
+		//Sem fila: com todas as threads ocupadas a leitura é feita na própria thread da requisição
+		this.readExecutor = new ThreadPoolExecutor(readThreads, readThreads, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		this.readExecutor.shutdownNow();
+	}
 
 	@Override
 	public Ticket createOrUpdate(Ticket ticket) {
-		return this.ticketRepository.save(ticket);
+		Ticket previous = ticket.getId() != null ? findCounterState(ticket.getId()) : null;
+		if (ticket.getId() == null) {
+			ticket.setVersion(0L);
+			ticket.setRecentChanges(this.embeddedHistory ? new ArrayList<>() : null);
+		}
+		ticket.setLastModified(new Date());
+		String storedImageId = ticket.getImageId();
+		String replacedImageId = storeImage(ticket);
+		Ticket ticketPersisted;
+		try {
+			ticketPersisted = this.ticketRepository.save(ticket);
+		} catch (RuntimeException e) {
+			//A imagem recém gravada não é referenciada por nenhum ticket
+			if (!Objects.equals(storedImageId, ticket.getImageId())) {
+				this.attachmentService.delete(ticket.getImageId());
+				ticket.setImageId(storedImageId);
+			}
+			throw e;
+		}
+		this.ticketCounterService.update(previous, ticketPersisted);
+		this.attachmentService.delete(replacedImageId);
+		this.revisionService.increment(RevisionService.TICKET);
+		publish(previous == null ? TicketEventEnum.Created : TicketEventEnum.Updated, ticketPersisted,
+				previous != null ? previous.getStatus() : null, previous != null ? previous.getAssigneUser() : ticketPersisted.getAssigneUser());
+		return ticketPersisted;
 	}
 
 	@Override
 	public Ticket findById(String id) {
-		return this.ticketRepository.findOneById(id);
+		return resolveUsers(this.ticketRepository.findOneById(id));
+	}
+	
+	@Override
+	public Ticket findVersion(String id) {
+		Query query = Query.query(Criteria.where("id").is(id));
+		query.fields().include("version").include("lastModified");
+		return this.mongoTemplate.findOne(query, Ticket.class);
+	}
+	
+	@Override
+	public String findImageId(String id) {
+		Query query = Query.query(Criteria.where("id").is(id));
+		query.fields().include("imageId");
+		Ticket ticket = this.mongoTemplate.findOne(query, Ticket.class);
+		return ticket != null ? ticket.getImageId() : null;
+	}
+	
+	@Override
+	public Ticket findDetail(String id) {
+		Ticket ticket;
+		List<ChangeStatus> changes;
+		if (this.embeddedHistory) {
+			ticket = this.ticketRepository.findOneById(id);
+			if (ticket != null && ticket.getRecentChanges() != null) {
+				ticket.setChanges(findRecentChanges(ticket));
+				return resolveUsers(ticket);
+			}
+			//Ticket ainda não migrado: o histórico vem da coleção changeStatus
+			changes = ticket != null ? findChangeStatus(id) : null;
+		} else {
+			//O ticket e o histórico dependem apenas do id, então as duas consultas são feitas ao mesmo tempo
+			CompletableFuture<Ticket> ticketRead = CompletableFuture.supplyAsync(
+					RequestContextUtil.propagateSupplier(() -> this.ticketRepository.findOneById(id)), this.readExecutor);
+			CompletableFuture<List<ChangeStatus>> changesRead = CompletableFuture.supplyAsync(
+					RequestContextUtil.propagateSupplier(() -> findChangeStatus(id)), this.readExecutor);
+			ticket = join(ticketRead);
+			changes = join(changesRead);
+		}
+		if (ticket == null) {
+			return null;
+		}
+		
+		//Os usuários do ticket e do histórico são buscados em uma única consulta
+		Set<String> userIds = changeUserIds(changes);
+		userIds.add(ReferenceUtil.idOf(ticket.getUser()));
+		userIds.add(ReferenceUtil.idOf(ticket.getAssigneUser()));
+		Map<String, User> users = this.userService.findAllById(userIds);
+		ticket.setUser(users.get(ReferenceUtil.idOf(ticket.getUser())));
+		ticket.setAssigneUser(users.get(ReferenceUtil.idOf(ticket.getAssigneUser())));
+		ticket.setChanges(resolveChangeUsers(changes, users));
+		return ticket;
+	}
+	
+	@Override
+	public Ticket update(Ticket ticket) {
+		Date now = new Date();
+		Update update = new Update()
+				.set("title", ticket.getTitle())
+				.set("priority", ticket.getPriority())
+				.set("description", ticket.getDescription())
+				.set("lastModified", now)
+				.inc("version", 1);
+		String imageId = null;
+		if (ticket.getImage() != null && !ticket.getImage().isEmpty()) {
+			imageId = this.attachmentService.storeDataUrl(ticket.getImage());
+			update.set("imageId", imageId);
+		}
+		
+		//O estado anterior é retornado para remover a imagem substituída
+		Ticket previous = this.mongoTemplate.findAndModify(byIdAndVersion(ticket.getId(), ticket.getVersion()), update,
+				FindAndModifyOptions.options().returnNew(false), Ticket.class);
+		if (previous == null) {
+			this.attachmentService.delete(imageId);
+			throw versionConflict(ticket.getId());
+		}
+		if (imageId != null) {
+			this.attachmentService.delete(previous.getImageId());
+			previous.setImageId(imageId);
+		}
+		previous.setTitle(ticket.getTitle());
+		previous.setPriority(ticket.getPriority());
+		previous.setDescription(ticket.getDescription());
+		previous.setVersion(nextVersion(previous.getVersion()));
+		previous.setLastModified(now);
+		this.revisionService.increment(RevisionService.TICKET);
+		publish(TicketEventEnum.Updated, previous, previous.getStatus(), previous.getAssigneUser());
+		return resolveUsers(previous);
+	}
+	
+	@Override
+	public Ticket changeStatus(String id, StatusEnum status, User userChange, Long version) {
+		Date now = new Date();
+		Update update = new Update()
+				.set("status", status)
+				.set("lastModified", now)
+				.inc("version", 1);
+		if (status == StatusEnum.Assigned) {
+			update.set("assigneUser", userChange);
+		}
+		pushRecentChange(update, new RecentChange(now, status, userChange));
+		//O fluxo de status é conferido na própria alteração, junto com a versão
+		Query query = byIdAndVersion(id, version).addCriteria(Criteria.where("status").in(StatusEnum.changeableTo(status)));
+		Ticket ticket = this.mongoTemplate.findAndModify(query, update,
+				FindAndModifyOptions.options().returnNew(false), Ticket.class);
+		if (ticket == null) {
+			throw statusConflict(id, status);
+		}
+		
+		Ticket before = new Ticket();
+		before.setStatus(ticket.getStatus());
+		before.setUser(ticket.getUser());
+		before.setAssigneUser(ticket.getAssigneUser());
+		ticket.setStatus(status);
+		if (status == StatusEnum.Assigned) {
+			ticket.setAssigneUser(userChange);
+		}
+		ticket.setVersion(nextVersion(ticket.getVersion()));
+		ticket.setLastModified(now);
+		this.ticketCounterService.update(before, ticket);
+		
+		ChangeStatus changeStatus = new ChangeStatus();
+		changeStatus.setTicket(ticket);
+		changeStatus.setUserChange(userChange);
+		changeStatus.setDateChange(now);
+		changeStatus.setStatus(status);
+		this.changeStatusRepository.save(changeStatus);
+		//A revisão muda só depois dos contadores e do histórico, para que um ETag novo nunca acompanhe dados antigos
+		this.revisionService.increment(RevisionService.TICKET);
+		publish(TicketEventEnum.StatusChanged, ticket, before.getStatus(), before.getAssigneUser());
+		return resolveUsers(ticket);
 	}
 
 	@Override
-	public void delete(Ticket ticket) {
-		this.ticketRepository.delete(ticket);
+	public Ticket delete(String id) {
+		//Lê e remove na mesma operação: só quem removeu o documento desconta o ticket dos contadores
+		Ticket ticket = this.mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Ticket.class);
+		if (ticket == null) {
+			return null;
+		}
+		this.ticketCounterService.update(ticket, null);
+		this.attachmentService.delete(ticket.getImageId());
+		this.revisionService.increment(RevisionService.TICKET);
+		publish(TicketEventEnum.Deleted, ticket, ticket.getStatus(), ticket.getAssigneUser());
+		return ticket;
 	}
 
 	@Override
-	public Page<Ticket> listTicket(int page, int count) {
-		return this.ticketRepository.findAll(PageRequest.of(page, count));
+	public Page<TicketItem> listTicket(int page, int count) {
+		return toItems(this.ticketRepository.findAllProjectedBy(PageRequest.of(page, count)));
 	}
 
 	@Override
@@ -49,31 +311,114 @@ public class TicketServiceImpl implements TicketService {
 	}
 
 	@Override
-	public Iterable<ChangeStatus> listChangeStatus(String ticketId) {
-		return this.changeStatusRepository.findByTicketIdOrderByDateChangeDesc(ticketId);
+	public List<TicketStatusResult> changeStatus(List<String> ids, StatusEnum status, User userChange) {
+		if (status.isCustomerDecision()) {
+			throw new IllegalArgumentException("Status " + status + " is decided by the customer on each ticket");
+		}
+		Query query = Query.query(Criteria.where("id").in(ids));
+		query.fields().include("status").include("user").include("assigneUser");
+		Map<String, Ticket> current = this.mongoTemplate.find(query, Ticket.class).stream()
+				.collect(Collectors.toMap(Ticket::getId, Function.identity()));
+		
+		List<TicketStatusResult> results = new ArrayList<>(ids.size());
+		for (String id : new LinkedHashSet<>(ids)) {
+			TicketStatusResult result = new TicketStatusResult(id);
+			results.add(result);
+			Ticket ticket = current.get(id);
+			if (ticket == null) {
+				result.setError("Register not found Id: " + id);
+				continue;
+			}
+			result.setPreviousStatus(ticket.getStatus());
+			if (ticket.getStatus() == null || !ticket.getStatus().canChangeTo(status)) {
+				result.setError("Invalid status change: " + ticket.getStatus() + " -> " + status);
+			}
+		}
+		
+		Date now = new Date();
+		Update update = new Update().set("status", status).set("lastModified", now).inc("version", 1);
+		if (status == StatusEnum.Assigned) {
+			update.set("assigneUser", userChange);
+		}
+		pushRecentChange(update, new RecentChange(now, status, userChange));
+		
+		List<ChangeStatus> changes = new ArrayList<>(results.size());
+		List<Ticket> before = new ArrayList<>(results.size());
+		List<Ticket> after = new ArrayList<>(results.size());
+		for (TicketStatusResult result : results) {
+			if (!result.isChanged()) {
+				continue;
+			}
+			//Cada ticket é alterado apenas se ainda estiver no status lido. O documento anterior retornado confirma que
+			//a mudança foi desta chamada e traz o estado usado nos contadores
+			Query eligible = Query.query(Criteria.where("id").is(result.getId()).and("status").is(result.getPreviousStatus()));
+			eligible.fields().include("status").include("user").include("assigneUser");
+			Ticket ticket = this.mongoTemplate.findAndModify(eligible, update,
+					FindAndModifyOptions.options().returnNew(false), Ticket.class);
+			if (ticket == null) {
+				result.setError("Status changed concurrently Id: " + result.getId());
+				continue;
+			}
+			result.setStatus(status);
+			before.add(ticket);
+			Ticket changedTicket = new Ticket();
+			changedTicket.setId(ticket.getId());
+			changedTicket.setStatus(status);
+			changedTicket.setUser(ticket.getUser());
+			changedTicket.setAssigneUser(status == StatusEnum.Assigned ? userChange : ticket.getAssigneUser());
+			after.add(changedTicket);
+			
+			ChangeStatus changeStatus = new ChangeStatus();
+			changeStatus.setTicket(ticket);
+			changeStatus.setUserChange(userChange);
+			changeStatus.setDateChange(now);
+			changeStatus.setStatus(status);
+			changes.add(changeStatus);
+		}
+		if (!changes.isEmpty()) {
+			this.mongoTemplate.insert(changes, ChangeStatus.class);
+			this.ticketCounterService.updateAll(before, after);
+			this.revisionService.increment(RevisionService.TICKET);
+			publishStatusChanged(results, before);
+		}
+		return results;
 	}
 
 	@Override
-	public Page<Ticket> findByCurrentUser(int page, int count, String userId) {
-		return this.ticketRepository.findByUserIdOrderByDateDesc(PageRequest.of(page, count), userId);
+	public List<ChangeStatus> listChangeStatus(String ticketId) {
+		List<ChangeStatus> changes = findChangeStatus(ticketId);
+		return resolveChangeUsers(changes, this.userService.findAllById(changeUserIds(changes)));
 	}
 
 	@Override
-	public Page<Ticket> findByParameters(int page, int count, String title, String status, String priority) {
-		return this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityOrderByDateDesc(
-				 title, status, priority, PageRequest.of(page, count));
+	public List<ChangeStatus> findRecentChanges(Ticket ticket) {
+		if (this.embeddedHistory && ticket.getRecentChanges() != null) {
+			return ticket.getRecentChanges().stream().map(RecentChange::toChangeStatus).collect(Collectors.toList());
+		}
+		return listChangeStatus(ticket.getId());
 	}
 
 	@Override
-	public Page<Ticket> findByParametersAndCurrentUser(int page, int count, String title, String status,
-			String priority, String userId) {
-		return this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusAndPriorityAndUserIdOrderByDateDesc(
-				title, status, priority, userId, PageRequest.of(page, count));
+	public Page<TicketItem> findByCurrentUser(int page, int count, String userId) {
+		return toItems(this.ticketRepository.findByUserIdOrderByDateDesc(PageRequest.of(page, count), userId));
 	}
 
 	@Override
-	public Page<Ticket> findByNumber(int page, int count, Integer number) {
-		return this.ticketRepository.findByNumber(number, PageRequest.of(page, count));
+	public Page<TicketItem> findByParameters(int page, int count, String title, String status, String priority) {
+		return toItems(this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityOrderByDateDesc(
+				 title, status, priority, PageRequest.of(page, count)));
+	}
+	
+	@Override
+	public Page<TicketItem> findByParametersAndCurrentUser(int page, int count, String title, String status,
+			String priority, String userId) {
+		return toItems(this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusAndPriorityAndUserIdOrderByDateDesc(
+				title, status, priority, userId, PageRequest.of(page, count)));
+	}
+	
+	@Override
+	public Page<TicketItem> findByNumber(int page, int count, Integer number) {
+		return toItems(this.ticketRepository.findByNumber(number, PageRequest.of(page, count)));
 	}
 
 	@Override
@@ -82,10 +427,261 @@ public class TicketServiceImpl implements TicketService {
 	}
 
 	@Override
-	public Page<Ticket> findByParametersAndAssignedUser(int page, int count, String title, String status,
+	public Page<TicketItem> findByParametersAndAssignedUser(int page, int count, String title, String status,
 			String priority, String assignedUserId) {
-		return this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusAndPriorityIgnoreCaseContainingAndAssigneUserIdOrderByDateDesc(
-				title, status, priority, assignedUserId, PageRequest.of(page, count));
+		return toItems(this.ticketRepository.findByTitleIgnoreCaseContainingAndStatusAndPriorityIgnoreCaseContainingAndAssigneUserIdOrderByDateDesc(
+				title, status, priority, assignedUserId, PageRequest.of(page, count)));
+	}
+	
+	@Override
+	public CursorSlice<TicketItem> findByCursor(TicketFilter filter, String cursor, int requestedCount) {
+		if (requestedCount < 1) {
+			throw new IllegalArgumentException("Invalid count: " + requestedCount);
+		}
+		int count = Math.min(requestedCount, this.cursorMaxCount);
+		Date date = null;
+		String id = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			String[] position = decodeCursor(cursor);
+			date = new Date(Long.parseLong(position[0]));
+			id = position[1];
+		}
+		//Busca um registro a mais apenas para saber se existe uma próxima fatia
+		List<Ticket> tickets = this.ticketRepository.findByFilterAfter(filter, date, id, count + 1);
+		boolean hasNext = tickets.size() > count;
+		if (hasNext) {
+			tickets = tickets.subList(0, count);
+		}
+		String next = null;
+		if (hasNext) {
+			Ticket last = tickets.get(tickets.size() - 1);
+			next = encodeCursor(last.getDate(), last.getId());
+		}
+		return new CursorSlice<>(toItems(tickets), next, hasNext);
+	}
+	
+	@Override
+	public Page<TicketItem> search(int page, int count, String text, TicketFilter filter) {
+		return toItems(this.ticketRepository.search(text, filter, PageRequest.of(page, count)));
+	}
+	
+	@Override
+	public Summary findSummary() {
+		return this.ticketCounterService.summary();
+	}
+	
+	@Override
+	public Summary rebuildSummary() {
+		this.ticketCounterService.rebuild();
+		return this.ticketCounterService.summary();
+	}
+	
+	@Override
+	public Summary findSummaryByUser(String userId) {
+		return this.ticketCounterService.summaryByUser(userId);
+	}
+	
+	@Override
+	public Summary findSummaryByAssignedUser(String assignedUserId) {
+		return this.ticketCounterService.summaryByAssignedUser(assignedUserId);
+	}
+	
+	private Page<TicketItem> toItems(Page<Ticket> tickets) {
+		return new PageImpl<>(toItems(tickets.getContent()), tickets.getPageable(), tickets.getTotalElements());
+	}
+	
+	/**
+	 * Converte os tickets da página em itens de listagem, carregando os usuários referenciados em uma única consulta.
+	 * @param tickets
+	 * @return
+	 */
+	private List<TicketItem> toItems(List<Ticket> tickets) {
+		Set<String> userIds = new HashSet<>();
+		for (Ticket ticket : tickets) {
+			userIds.add(ReferenceUtil.idOf(ticket.getUser()));
+			userIds.add(ReferenceUtil.idOf(ticket.getAssigneUser()));
+		}
+		Map<String, User> users = this.userService.findAllById(userIds);
+		return tickets.stream().map(ticket -> TicketItem.of(ticket, users)).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Publica a alteração para os painéis conectados. Sem conexões abertas, nenhuma consulta é feita.
+	 */
+	private void publish(TicketEventEnum type, Ticket ticket, StatusEnum previousStatus, User previousAssigneUser) {
+		if (this.ticketEventService.hasSubscribers()) {
+			Map<String, User> users = this.userService.findAllById(Arrays.asList(
+					ReferenceUtil.idOf(ticket.getUser()), ReferenceUtil.idOf(ticket.getAssigneUser())));
+			this.ticketEventService.publish(TicketEvent.of(type, ticket, previousStatus, ReferenceUtil.idOf(previousAssigneUser), users));
+		}
+	}
+	
+	/**
+	 * Publica as mudanças da alteração em lote, lendo os campos de listagem dos tickets alterados em uma única consulta.
+	 * @param before estado anterior dos tickets alterados, com o responsável que tinham antes da alteração
+	 */
+	private void publishStatusChanged(List<TicketStatusResult> results, List<Ticket> before) {
+		if (!this.ticketEventService.hasSubscribers()) {
+			return;
+		}
+		Map<String, StatusEnum> previousStatus = results.stream()
+				.filter(TicketStatusResult::isChanged)
+				.collect(Collectors.toMap(TicketStatusResult::getId, TicketStatusResult::getPreviousStatus));
+		Map<String, String> previousAssigneUser = new HashMap<>();
+		before.forEach(ticket -> previousAssigneUser.put(ticket.getId(), ReferenceUtil.idOf(ticket.getAssigneUser())));
+		Query query = Query.query(Criteria.where("id").in(previousStatus.keySet()));
+		Document.parse(TicketRepository.LIST_FIELDS).keySet().forEach(field -> query.fields().include(field));
+		List<Ticket> tickets = this.mongoTemplate.find(query, Ticket.class);
+		Set<String> userIds = new HashSet<>();
+		for (Ticket ticket : tickets) {
+			userIds.add(ReferenceUtil.idOf(ticket.getUser()));
+			userIds.add(ReferenceUtil.idOf(ticket.getAssigneUser()));
+		}
+		Map<String, User> users = this.userService.findAllById(userIds);
+		tickets.forEach(ticket -> this.ticketEventService.publish(
+				TicketEvent.of(TicketEventEnum.StatusChanged, ticket, previousStatus.get(ticket.getId()),
+						previousAssigneUser.get(ticket.getId()), users)));
+	}
+	
+	/**
+	 * Inclui a mudança no início do histórico embutido, mantendo apenas as mais recentes.
+	 */
+	private void pushRecentChange(Update update, RecentChange change) {
+		if (this.embeddedHistory) {
+			update.push("recentChanges").atPosition(Position.FIRST).slice(this.historySize).each(change);
+		}
+	}
+	
+	private List<ChangeStatus> findChangeStatus(String ticketId) {
+		List<ChangeStatus> changes = new ArrayList<>();
+		this.changeStatusRepository.findByTicketIdOrderByDateChangeDesc(ticketId).forEach(changes::add);
+		return changes;
+	}
+	
+	private Set<String> changeUserIds(List<ChangeStatus> changes) {
+		return changes.stream()
+				.map(changeStatus -> ReferenceUtil.idOf(changeStatus.getUserChange()))
+				.collect(Collectors.toCollection(HashSet::new));
+	}
+	
+	/**
+	 * Troca as referências lazy do histórico pelos usuários já buscados. O ticket não é retornado no histórico.
+	 */
+	private List<ChangeStatus> resolveChangeUsers(List<ChangeStatus> changes, Map<String, User> users) {
+		changes.forEach(changeStatus -> {
+			changeStatus.setUserChange(users.get(ReferenceUtil.idOf(changeStatus.getUserChange())));
+			changeStatus.setTicket(null);
+		});
+		return changes;
+	}
+	
+	/**
+	 * Aguarda a leitura paralela, repassando a exceção original da consulta.
+	 */
+	private <T> T join(CompletableFuture<T> read) {
+		try {
+			return read.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+	
+	/**
+	 * Troca as referências lazy do ticket pelos usuários, buscados em uma única consulta.
+	 */
+	private Ticket resolveUsers(Ticket ticket) {
+		if (ticket != null) {
+			Map<String, User> users = this.userService.findAllById(Arrays.asList(
+					ReferenceUtil.idOf(ticket.getUser()), ReferenceUtil.idOf(ticket.getAssigneUser())));
+			ticket.setUser(users.get(ReferenceUtil.idOf(ticket.getUser())));
+			ticket.setAssigneUser(users.get(ReferenceUtil.idOf(ticket.getAssigneUser())));
+		}
+		return ticket;
+	}
+	
+	/**
+	 * Seleciona o ticket pelo id e, quando informada, pela versão. Tickets sem o campo version estão na versão 0.
+	 */
+	private Query byIdAndVersion(String id, Long version) {
+		Criteria criteria = Criteria.where("id").is(id);
+		if (version != null && version == 0) {
+			criteria.orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false));
+		} else if (version != null) {
+			criteria.and("version").is(version);
+		}
+		return Query.query(criteria);
+	}
+	
+	private Long nextVersion(Long version) {
+		return version != null ? version + 1 : 1L;
+	}
+	
+	/**
+	 * Diferencia o ticket inexistente do ticket alterado por outro usuário depois da leitura.
+	 */
+	private RuntimeException versionConflict(String id) {
+		if (!this.mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), Ticket.class)) {
+			return new IllegalArgumentException("Register not found Id: " + id);
+		}
+		return new OptimisticLockingFailureException("Ticket was changed by another user Id: " + id);
+	}
+	
+	/**
+	 * Diferencia, na mudança de status, o ticket inexistente e a mudança fora do fluxo do ticket alterado por outro usuário.
+	 */
+	private RuntimeException statusConflict(String id, StatusEnum status) {
+		Ticket current = findCounterState(id);
+		if (current == null) {
+			return new IllegalArgumentException("Register not found Id: " + id);
+		}
+		if (current.getStatus() == null || !current.getStatus().canChangeTo(status)) {
+			return new IllegalArgumentException("Invalid status change: " + current.getStatus() + " -> " + status);
+		}
+		return new OptimisticLockingFailureException("Ticket was changed by another user Id: " + id);
+	}
+	
+	/**
+	 * Grava a imagem recebida no armazenamento de anexos, mantendo no ticket apenas a referência.
+	 * @param ticket
+	 * @return id da imagem substituída, que deve ser removida após a gravação do ticket
+	 */
+	private String storeImage(Ticket ticket) {
+		if (ticket.getImage() == null || ticket.getImage().isEmpty()) {
+			return null;
+		}
+		String replacedImageId = ticket.getImageId();
+		ticket.setImageId(this.attachmentService.storeDataUrl(ticket.getImage()));
+		ticket.setImage(null);
+		return replacedImageId;
+	}
+	
+	private String encodeCursor(Date date, String id) {
+		String position = date.getTime() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private String[] decodeCursor(String cursor) {
+		String[] position;
+		try {
+			position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+		} catch (IllegalArgumentException e) {
+			position = new String[0];
+		}
+		if (position.length != 2 || !position[0].matches("-?\\d+")) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+		return position;
+	}
+	
+	/**
+	 * Lê apenas os campos que compõem os contadores (status, solicitante e técnico) do ticket gravado.
+	 * @param id
+	 * @return
+	 */
+	private Ticket findCounterState(String id) {
+		Query query = Query.query(Criteria.where("id").is(id));
+		query.fields().include("status").include("user").include("assigneUser");
+		return this.mongoTemplate.findOne(query, Ticket.class);
 	}
 
 }
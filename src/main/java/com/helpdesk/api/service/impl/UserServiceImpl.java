@@ -1,12 +1,27 @@
 package com.helpdesk.api.service.impl;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helpdesk.api.dto.CacheStatistics;
 import com.helpdesk.api.entity.User;
 import com.helpdesk.api.repository.UserRepository;
+import com.helpdesk.api.service.RevisionService;
 import com.helpdesk.api.service.UserService;
 
 @Service
@@ -15,24 +30,84 @@ public class UserServiceImpl implements UserService {
 	@Autowired
 	private UserRepository userRepository;
 	
+	@Autowired
+	private RevisionService revisionService;
+	
+	@Value("${helpdesk.cache.user.maximum-size:10000}")
+	private long cacheMaximumSize;
+	
+	@Value("${helpdesk.cache.user.expire-after-write:600}")
+	private long cacheExpireAfterWrite;
+	
+	//Usuários quase nunca mudam, então ficam em memória por id e por email até serem alterados ou removidos
+	private Cache<String, User> usersById;
+	
+	private Cache<String, User> usersByEmail;
+	
+	@PostConstruct
+	public void init() {
+		this.usersById = newCache();
+		this.usersByEmail = newCache();
+	}
+	
+	private Cache<String, User> newCache() {
+		return Caffeine.newBuilder()
+				.maximumSize(cacheMaximumSize)
+				.expireAfterWrite(cacheExpireAfterWrite, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+	}
+	
 	@Override
 	public User findByEmail(String email) {
-		return this.userRepository.findByEmail(email);
+		if (email == null) {
+			return null;
+		}
+		return this.usersByEmail.get(email, this.userRepository::findByEmail);
 	}
 
 	@Override
 	public User createOrUpdate(User user) {
-		return this.userRepository.save(user);
+		//O email pode ser alterado, então o registro anterior é lido para remover do cache a entrada do email antigo
+		User previous = user.getId() != null ? this.userRepository.findOneById(user.getId()) : null;
+		User userPersisted = this.userRepository.save(user);
+		evict(previous);
+		evict(userPersisted);
+		//O email do usuário aparece nos tickets, então as respostas de tickets também mudam. A revisão muda só depois do cache
+		this.revisionService.increment(RevisionService.USER);
+		return userPersisted;
 	}
 
 	@Override
 	public User findById(String id) {
-		return this.userRepository.findOneById(id);
+		if (id == null) {
+			return null;
+		}
+		return this.usersById.get(id, this.userRepository::findOneById);
+	}
+
+	@Override
+	public Map<String, User> findAllById(Collection<String> ids) {
+		Set<String> distinctIds = new HashSet<>(ids);
+		distinctIds.remove(null);
+		Map<String, User> users = new HashMap<>(this.usersById.getAllPresent(distinctIds));
+		distinctIds.removeAll(users.keySet());
+		if (!distinctIds.isEmpty()) {
+			for (User user : this.userRepository.findAllById(distinctIds)) {
+				this.usersById.put(user.getId(), user);
+				users.put(user.getId(), user);
+			}
+		}
+		return users;
 	}
 
 	@Override
 	public void delete(String id) {
+		User previous = this.userRepository.findOneById(id);
 		this.userRepository.deleteById(id);
+		evict(previous);
+		this.usersById.invalidate(id);
+		this.revisionService.increment(RevisionService.USER);
 	}
 
 	@Override
@@ -40,4 +115,28 @@ public class UserServiceImpl implements UserService {
 		return this.userRepository.findAll(PageRequest.of(page, count));
 	}
 
+	@Override
+	public Map<String, CacheStatistics> cacheStatistics() {
+		Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+		statistics.put("byId", new CacheStatistics(this.usersById.estimatedSize(), this.usersById.stats()));
+		statistics.put("byEmail", new CacheStatistics(this.usersByEmail.estimatedSize(), this.usersByEmail.stats()));
+		return statistics;
+	}
+	
+	/**
+	 * Remove o usuário dos dois caches, pelo id e pelo email do registro informado.
+	 * @param user
+	 */
+	private void evict(User user) {
+		if (user == null) {
+			return;
+		}
+		if (user.getId() != null) {
+			this.usersById.invalidate(user.getId());
+		}
+		if (user.getEmail() != null) {
+			this.usersByEmail.invalidate(user.getEmail());
+		}
+	}
+
 }
@@ -0,0 +1,31 @@
+package com.helpdesk.api.util;
+
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+
+import com.helpdesk.api.entity.User;
+
+/**
+ * Métodos auxiliares para referências {@code @DBRef}.
+ *
+ */
+public final class ReferenceUtil {
+
+	private ReferenceUtil() {
+	}
+
+	/**
+	 * Retorna o id do usuário referenciado sem disparar a consulta de uma referência lazy ainda não resolvida.
+	 * @param user
+	 * @return
+	 */
+	public static String idOf(User user) {
+		if (user == null) {
+			return null;
+		}
+		if (user instanceof LazyLoadingProxy) {
+			Object id = ((LazyLoadingProxy) user).toDBRef().getId();
+			return id != null ? id.toString() : null;
+		}
+		return user.getId();
+	}
+}
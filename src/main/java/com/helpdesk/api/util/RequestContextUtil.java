@@ -0,0 +1,78 @@
+package com.helpdesk.api.util;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Leva a requisição em andamento para as tarefas executadas em outros pools, para que as métricas medidas nessas threads
+ * (serviços e comandos do Mongo) saibam de qual endpoint e perfil vieram.
+ *
+ */
+public final class RequestContextUtil {
+
+	private RequestContextUtil() {
+	}
+	
+	public static Runnable propagate(Runnable task) {
+		HttpServletRequest request = currentRequest();
+		if (request == null) {
+			return task;
+		}
+		return () -> {
+			RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+			try {
+				task.run();
+			} finally {
+				RequestContextHolder.setRequestAttributes(previous);
+			}
+		};
+	}
+	
+	public static <T> Callable<T> propagate(Callable<T> task) {
+		HttpServletRequest request = currentRequest();
+		if (request == null) {
+			return task;
+		}
+		return () -> {
+			RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+			try {
+				return task.call();
+			} finally {
+				RequestContextHolder.setRequestAttributes(previous);
+			}
+		};
+	}
+	
+	public static <T> Supplier<T> propagateSupplier(Supplier<T> task) {
+		HttpServletRequest request = currentRequest();
+		if (request == null) {
+			return task;
+		}
+		return () -> {
+			RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+			try {
+				return task.get();
+			} finally {
+				RequestContextHolder.setRequestAttributes(previous);
+			}
+		};
+	}
+	
+	/**
+	 * Requisição da thread atual, lida enquanto ela ainda está ativa (na thread do Tomcat, antes do processamento assíncrono).
+	 * @return
+	 */
+	private static HttpServletRequest currentRequest() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+	}
+}
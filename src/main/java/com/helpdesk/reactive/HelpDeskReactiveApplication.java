@@ -0,0 +1,28 @@
+package com.helpdesk.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.helpdesk.api.security.jwt.JwtTokenUtil;
+
+/**
+ * Edição reativa (WebFlux + Netty + Mongo reativo) das consultas de tickets. Atende as mesmas rotas de leitura
+ * e o mesmo token JWT da aplicação principal, podendo ser publicada ao lado dela para as consultas dos painéis.
+ *
+ */
+@SpringBootApplication(exclude = {
+		MongoRepositoriesAutoConfiguration.class,
+		ReactiveUserDetailsServiceAutoConfiguration.class })
+@Import(JwtTokenUtil.class)
+public class HelpDeskReactiveApplication {
+	
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(HelpDeskReactiveApplication.class);
+		application.setWebApplicationType(WebApplicationType.REACTIVE);
+		application.run(args);
+	}
+}
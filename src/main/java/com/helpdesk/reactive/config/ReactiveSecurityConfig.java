@@ -0,0 +1,48 @@
+package com.helpdesk.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+import com.helpdesk.reactive.security.JwtSecurityContextRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Configuração do Spring Security da edição reativa, equivalente ao WebSecurityConfig da aplicação principal.
+ *
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+	
+	@Bean
+	public PasswordEncoder passwordEncoder() {
+		return new BCryptPasswordEncoder();
+	}
+	
+	@Bean
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtSecurityContextRepository securityContextRepository) {
+		return http.csrf().disable()
+				.httpBasic().disable()
+				.formLogin().disable()
+				.securityContextRepository(securityContextRepository)
+				.exceptionHandling()
+				.authenticationEntryPoint((exchange, e) -> Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED)))
+				.and()
+				.authorizeExchange()
+				.pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+				.pathMatchers("/api/auth/**").permitAll()
+				.anyExchange().authenticated()
+				.and()
+				.build();
+	}
+}
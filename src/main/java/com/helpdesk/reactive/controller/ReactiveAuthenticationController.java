@@ -0,0 +1,49 @@
+package com.helpdesk.reactive.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.security.jwt.JwtAuthenticationRequest;
+import com.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.helpdesk.api.security.jwt.JwtUserFactory;
+import com.helpdesk.api.security.model.CurrentUser;
+import com.helpdesk.reactive.repository.ReactiveUserRepository;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")//Permitindo o acesso de qualquer IP, porta, etc.
+public class ReactiveAuthenticationController {
+	
+	@Autowired
+	private ReactiveUserRepository userRepository;
+	
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+	
+	@PostMapping(value = "/api/auth")
+	public Mono<ResponseEntity<CurrentUser>> createAuthenticationToken(@RequestBody JwtAuthenticationRequest authenticationRequest) {
+		return this.userRepository.findByEmail(authenticationRequest.getEmail())
+				.filter(user -> this.passwordEncoder.matches(authenticationRequest.getPassword(), user.getPassword()))
+				.map(user -> ResponseEntity.ok(new CurrentUser(this.jwtTokenUtil.generateToken(JwtUserFactory.create(user)), withoutPassword(user))))
+				.defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+	}
+	
+	private User withoutPassword(User user) {
+		User copy = new User();
+		copy.setId(user.getId());
+		copy.setEmail(user.getEmail());
+		copy.setProfile(user.getProfile());
+		return copy;
+	}
+}
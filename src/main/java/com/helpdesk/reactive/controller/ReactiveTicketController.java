@@ -0,0 +1,126 @@
+package com.helpdesk.reactive.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.ProfileEnum;
+import com.helpdesk.api.response.Response;
+import com.helpdesk.api.security.jwt.JwtUser;
+import com.helpdesk.reactive.service.ReactiveTicketService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rotas de leitura de tickets da edição reativa, com os mesmos caminhos, respostas e regras de acesso do TicketController.
+ * Atende apenas as leituras mais frequentes dos painéis (detalhe, listagens paginadas, filtro e resumo geral).
+ * Escritas, busca textual, cursor, exportação e resumos por usuário continuam apenas na aplicação principal.
+ * As listagens não conferem ETag: toda requisição consulta o banco e responde 200.
+ *
+ */
+@RestController
+@RequestMapping("/api/ticket")
+@CrossOrigin(origins = "*")
+public class ReactiveTicketController {
+	
+	@Autowired
+	private ReactiveTicketService ticketService;
+	
+	@GetMapping(value = "{id}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public Mono<ResponseEntity<Response<Ticket>>> findById(@PathVariable("id") String id) {
+		return this.ticketService.findById(id)
+				.map(ticket -> {
+					Response<Ticket> response = new Response<Ticket>();
+					response.setData(ticket);
+					return ResponseEntity.ok(response);
+				})
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					Response<Ticket> response = new Response<Ticket>();
+					response.getErrors().add("Register not found Id: " + id);
+					return ResponseEntity.badRequest().body(response);
+				}));
+	}
+	
+	@GetMapping(value = "{page}/{count}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public Mono<ResponseEntity<Response<Page<TicketItem>>>> findAll(@PathVariable("page") int page, @PathVariable("count") int count) {
+		return currentUser().flatMap(userRequest -> {
+			TicketFilter filter = new TicketFilter();
+			boolean customer = userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER);
+			//Como no TicketController, só a listagem do cliente é ordenada por data
+			if (customer) {
+				filter.setUserId(userRequest.getId());
+			}
+			Pageable pages = customer ? PageRequest.of(page, count, Sort.by(Direction.DESC, "date")) : PageRequest.of(page, count);
+			return findByFilter(pages, filter, null);
+		});
+	}
+	
+	@GetMapping(value = "{page}/{count}/{number}/{title}/{status}/{priority}/{assigned}")
+	@PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+	public Mono<ResponseEntity<Response<Page<TicketItem>>>> findByParams(
+			@PathVariable("page") int page, 
+			@PathVariable("count") int count, 
+			@PathVariable("number") Integer number, 
+			@PathVariable("title") String title, 
+			@PathVariable("status") String status, 
+			@PathVariable("priority") String priority, 
+			@PathVariable("assigned") boolean assigned) {
+		
+		return currentUser().flatMap(userRequest -> {
+			//Quando não se quiser informar um dos campos abaixo basta usar uninformed na url
+			TicketFilter filter = new TicketFilter()
+					.setTitle(title.equals("uninformed") ? null : title)
+					.setStatus(status.equals("uninformed") ? null : status)
+					.setPriority(priority.equals("uninformed") ? null : priority);
+			if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
+				filter.setUserId(userRequest.getId());
+			} else if (assigned) {
+				filter.setAssigneUserId(userRequest.getId());
+			}
+			//A consulta por número não é ordenada, os filtros seguem a data decrescente
+			Pageable pages = number != null && number > 0 ? PageRequest.of(page, count) : PageRequest.of(page, count, Sort.by(Direction.DESC, "date"));
+			return findByFilter(pages, filter, number);
+		});
+	}
+	
+	//Como no TicketController, o resumo exige apenas um usuário autenticado
+	@GetMapping(value = "/sumary")
+	public Mono<ResponseEntity<Response<Summary>>> findSummary() {
+		return this.ticketService.findSummary().map(summary -> {
+			Response<Summary> response = new Response<Summary>();
+			response.setData(summary);
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	private Mono<ResponseEntity<Response<Page<TicketItem>>>> findByFilter(Pageable pages, TicketFilter filter, Integer number) {
+		return this.ticketService.findByFilter(pages, filter, number).map(tickets -> {
+			Response<Page<TicketItem>> response = new Response<Page<TicketItem>>();
+			response.setData(tickets);
+			return ResponseEntity.ok(response);
+		});
+	}
+	
+	private Mono<User> currentUser() {
+		return ReactiveSecurityContextHolder.getContext()
+				.map(context -> ((JwtUser) context.getAuthentication().getPrincipal()).getUser());
+	}
+}
@@ -0,0 +1,68 @@
+package com.helpdesk.reactive.document;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.helpdesk.api.enums.StatusEnum;
+import com.mongodb.DBRef;
+
+/**
+ * Documento da coleção de histórico de status para o Mongo reativo, com as referências lidas como {@link DBRef}.
+ *
+ */
+@Document(collection = "changeStatus")
+public class ChangeStatusDocument {
+	
+	@Id
+	private String id;
+	
+	private DBRef ticket;
+	
+	private DBRef userChange;
+	
+	private Date dateChange;
+	
+	private StatusEnum status;
+	
+	public String getId() {
+		return id;
+	}
+	
+	public void setId(String id) {
+		this.id = id;
+	}
+	
+	public DBRef getTicket() {
+		return ticket;
+	}
+	
+	public void setTicket(DBRef ticket) {
+		this.ticket = ticket;
+	}
+	
+	public DBRef getUserChange() {
+		return userChange;
+	}
+	
+	public void setUserChange(DBRef userChange) {
+		this.userChange = userChange;
+	}
+	
+	public Date getDateChange() {
+		return dateChange;
+	}
+	
+	public void setDateChange(Date dateChange) {
+		this.dateChange = dateChange;
+	}
+	
+	public StatusEnum getStatus() {
+		return status;
+	}
+	
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+}
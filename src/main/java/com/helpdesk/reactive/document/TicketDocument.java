@@ -0,0 +1,152 @@
+package com.helpdesk.reactive.document;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.helpdesk.api.entity.RecentChange;
+import com.helpdesk.api.enums.PriorityEnum;
+import com.helpdesk.api.enums.StatusEnum;
+import com.mongodb.DBRef;
+
+/**
+ * Documento da coleção de tickets para o Mongo reativo. O driver reativo não resolve {@code @DBRef},
+ * então as referências de usuário são lidas como {@link DBRef} e os usuários carregados em lote pelo serviço.
+ *
+ */
+@Document(collection = "ticket")
+public class TicketDocument {
+	
+	@Id
+	private String id;
+	
+	private DBRef user;
+	
+	private Date date;
+	
+	private String title;
+	
+	private Integer number;
+	
+	private StatusEnum status;
+	
+	private PriorityEnum priority;
+	
+	private DBRef assigneUser;
+	
+	private String description;
+	
+	private String imageId;
+	
+	private Long version;
+	
+	private Date lastModified;
+	
+	private List<RecentChange> recentChanges;
+	
+	public String getId() {
+		return id;
+	}
+	
+	public void setId(String id) {
+		this.id = id;
+	}
+	
+	public DBRef getUser() {
+		return user;
+	}
+	
+	public void setUser(DBRef user) {
+		this.user = user;
+	}
+	
+	public Date getDate() {
+		return date;
+	}
+	
+	public void setDate(Date date) {
+		this.date = date;
+	}
+	
+	public String getTitle() {
+		return title;
+	}
+	
+	public void setTitle(String title) {
+		this.title = title;
+	}
+	
+	public Integer getNumber() {
+		return number;
+	}
+	
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+	
+	public StatusEnum getStatus() {
+		return status;
+	}
+	
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+	
+	public PriorityEnum getPriority() {
+		return priority;
+	}
+	
+	public void setPriority(PriorityEnum priority) {
+		this.priority = priority;
+	}
+	
+	public DBRef getAssigneUser() {
+		return assigneUser;
+	}
+	
+	public void setAssigneUser(DBRef assigneUser) {
+		this.assigneUser = assigneUser;
+	}
+	
+	public String getDescription() {
+		return description;
+	}
+	
+	public void setDescription(String description) {
+		this.description = description;
+	}
+	
+	public String getImageId() {
+		return imageId;
+	}
+	
+	public void setImageId(String imageId) {
+		this.imageId = imageId;
+	}
+	
+	public Long getVersion() {
+		return version;
+	}
+	
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+	
+	public Date getLastModified() {
+		return lastModified;
+	}
+	
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+	
+	public List<RecentChange> getRecentChanges() {
+		return recentChanges;
+	}
+	
+	public void setRecentChanges(List<RecentChange> recentChanges) {
+		this.recentChanges = recentChanges;
+	}
+}
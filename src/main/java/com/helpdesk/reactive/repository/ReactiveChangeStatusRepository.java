@@ -0,0 +1,16 @@
+package com.helpdesk.reactive.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.helpdesk.reactive.document.ChangeStatusDocument;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveChangeStatusRepository extends ReactiveMongoRepository<ChangeStatusDocument, String> {
+	
+	@Query("{ 'ticket.$id' : ?0 }")
+	Flux<ChangeStatusDocument> findByTicketId(ObjectId ticketId, Sort sort);
+}
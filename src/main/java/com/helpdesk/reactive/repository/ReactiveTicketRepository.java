@@ -0,0 +1,9 @@
+package com.helpdesk.reactive.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.helpdesk.reactive.document.TicketDocument;
+
+public interface ReactiveTicketRepository extends ReactiveMongoRepository<TicketDocument, String>, ReactiveTicketRepositoryCustom {
+
+}
@@ -0,0 +1,23 @@
+package com.helpdesk.reactive.repository;
+
+import org.springframework.data.domain.Pageable;
+
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.reactive.document.TicketDocument;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTicketRepositoryCustom {
+	
+	/**
+	 * Busca a página de tickets, lendo apenas os campos de listagem.
+	 * @param filter
+	 * @param number número do ticket, ou null para não filtrar
+	 * @param pages página e ordenação
+	 * @return
+	 */
+	Flux<TicketDocument> findByFilter(TicketFilter filter, Integer number, Pageable pages);
+	
+	Mono<Long> countByFilter(TicketFilter filter, Integer number);
+}
@@ -0,0 +1,85 @@
+package com.helpdesk.reactive.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.repository.TicketRepository;
+import com.helpdesk.reactive.document.TicketDocument;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveTicketRepositoryImpl implements ReactiveTicketRepositoryCustom {
+	
+	@Autowired
+	private ReactiveMongoTemplate reactiveMongoTemplate;
+	
+	@Override
+	public Flux<TicketDocument> findByFilter(TicketFilter filter, Integer number, Pageable pages) {
+		Query query = new Query(and(filterCriteria(filter, number))).with(pages);
+		Document.parse(TicketRepository.LIST_FIELDS).keySet().forEach(field -> query.fields().include(field));
+		return this.reactiveMongoTemplate.find(query, TicketDocument.class);
+	}
+	
+	@Override
+	public Mono<Long> countByFilter(TicketFilter filter, Integer number) {
+		return this.reactiveMongoTemplate.count(new Query(and(filterCriteria(filter, number))), TicketDocument.class);
+	}
+	
+	/**
+	 * Os mesmos filtros do TicketRepositoryImpl, mas as referências são consultadas pelo $id do DBRef,
+	 * já que o documento reativo não mapeia o usuário.
+	 * Como no findByParams do TicketController, o status é comparado por trecho e sem diferenciar maiúsculas.
+	 */
+	private List<Criteria> filterCriteria(TicketFilter filter, Integer number) {
+		List<Criteria> criteria = new ArrayList<>();
+		if (number != null && number > 0) {
+			criteria.add(Criteria.where("number").is(number));
+			return criteria;
+		}
+		if (hasText(filter.getTitle())) {
+			criteria.add(Criteria.where("title").regex(Pattern.quote(filter.getTitle()), "i"));
+		}
+		if (hasText(filter.getStatus())) {
+			criteria.add(Criteria.where("status").regex(Pattern.quote(filter.getStatus()), "i"));
+		}
+		if (hasText(filter.getPriority())) {
+			criteria.add(Criteria.where("priority").is(filter.getPriority()));
+		}
+		if (hasText(filter.getUserId())) {
+			criteria.add(Criteria.where("user.$id").is(objectId(filter.getUserId())));
+		}
+		if (hasText(filter.getAssigneUserId())) {
+			criteria.add(Criteria.where("assigneUser.$id").is(objectId(filter.getAssigneUserId())));
+		}
+		return criteria;
+	}
+	
+	private Object objectId(String id) {
+		return ObjectId.isValid(id) ? new ObjectId(id) : id;
+	}
+	
+	private Criteria and(List<Criteria> criteria) {
+		if (criteria.isEmpty()) {
+			return new Criteria();
+		}
+		if (criteria.size() == 1) {
+			return criteria.get(0);
+		}
+		return new Criteria().andOperator(criteria.toArray(new Criteria[criteria.size()]));
+	}
+	
+	private boolean hasText(String value) {
+		return value != null && !value.isEmpty();
+	}
+}
@@ -0,0 +1,12 @@
+package com.helpdesk.reactive.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.helpdesk.api.entity.User;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+	
+	Mono<User> findByEmail(String email);
+}
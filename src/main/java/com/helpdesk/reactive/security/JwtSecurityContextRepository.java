@@ -0,0 +1,52 @@
+package com.helpdesk.reactive.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.helpdesk.api.security.jwt.JwtToken;
+import com.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.helpdesk.api.security.jwt.JwtUser;
+import com.helpdesk.api.security.jwt.JwtUserFactory;
+import com.helpdesk.reactive.repository.ReactiveUserRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reativo do JwtAuthenticationTokenFilter: monta o contexto de segurança a partir do token do header Authorization.
+ *
+ */
+@Component
+public class JwtSecurityContextRepository implements ServerSecurityContextRepository {
+	
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+	
+	@Autowired
+	private ReactiveUserRepository userRepository;
+	
+	@Override
+	public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+		//A aplicação é stateless, o token é enviado em todas as requisições
+		return Mono.empty();
+	}
+	
+	@Override
+	public Mono<SecurityContext> load(ServerWebExchange exchange) {
+		JwtToken token = this.jwtTokenUtil.verifyToken(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+		if (token == null) {
+			return Mono.empty();
+		}
+		return this.userRepository.findByEmail(token.getUserName())
+				.map(user -> {
+					JwtUser jwtUser = JwtUserFactory.create(user);
+					return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(jwtUser, null, jwtUser.getAuthorities()));
+				});
+	}
+
+}
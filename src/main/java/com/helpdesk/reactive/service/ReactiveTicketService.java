@@ -0,0 +1,32 @@
+package com.helpdesk.reactive.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.entity.Ticket;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTicketService {
+	
+	/**
+	 * Busca o ticket com o solicitante, o técnico e o histórico de status já resolvidos.
+	 * @param id
+	 * @return
+	 */
+	Mono<Ticket> findById(String id);
+	
+	/**
+	 * Busca a página de tickets. Quando o número é informado, os demais filtros são ignorados.
+	 * @param pages página e ordenação
+	 * @param filter
+	 * @param number
+	 * @return
+	 */
+	Mono<Page<TicketItem>> findByFilter(Pageable pages, TicketFilter filter, Integer number);
+	
+	Mono<Summary> findSummary();
+}
@@ -0,0 +1,160 @@
+package com.helpdesk.reactive.service.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.helpdesk.api.dto.Summary;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.RecentChange;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.TicketCounter;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.reactive.document.ChangeStatusDocument;
+import com.helpdesk.reactive.document.TicketDocument;
+import com.helpdesk.reactive.repository.ReactiveChangeStatusRepository;
+import com.helpdesk.reactive.repository.ReactiveTicketRepository;
+import com.helpdesk.reactive.repository.ReactiveUserRepository;
+import com.helpdesk.reactive.service.ReactiveTicketService;
+import com.mongodb.DBRef;
+
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveTicketServiceImpl implements ReactiveTicketService {
+	
+	@Autowired
+	private ReactiveTicketRepository ticketRepository;
+	
+	@Autowired
+	private ReactiveChangeStatusRepository changeStatusRepository;
+	
+	@Autowired
+	private ReactiveUserRepository userRepository;
+	
+	@Autowired
+	private ReactiveMongoTemplate reactiveMongoTemplate;
+	
+	@Value("${helpdesk.ticket.history.embedded:true}")
+	private boolean embeddedHistory;
+	
+	@Override
+	public Mono<Ticket> findById(String id) {
+		return this.ticketRepository.findById(id).flatMap(document -> {
+			if (this.embeddedHistory && document.getRecentChanges() != null) {
+				//Como no TicketServiceImpl, o histórico recente embutido dispensa a coleção changeStatus
+				return findUsers(Arrays.asList(idOf(document.getUser()), idOf(document.getAssigneUser())))
+						.map(users -> {
+							Ticket ticket = toDetail(document, users);
+							ticket.setChanges(document.getRecentChanges().stream()
+									.map(RecentChange::toChangeStatus)
+									.collect(Collectors.toList()));
+							return ticket;
+						});
+			}
+			Object ticketId = ObjectId.isValid(id) ? new ObjectId(id) : id;
+			Mono<List<ChangeStatusDocument>> changes = ticketId instanceof ObjectId
+					? this.changeStatusRepository.findByTicketId((ObjectId) ticketId, Sort.by(Direction.DESC, "dateChange")).collectList()
+					: Mono.just(Collections.emptyList());
+			return changes.flatMap(changeDocuments -> {
+				List<String> userIds = changeDocuments.stream()
+						.map(change -> idOf(change.getUserChange()))
+						.collect(Collectors.toList());
+				userIds.addAll(Arrays.asList(idOf(document.getUser()), idOf(document.getAssigneUser())));
+				return findUsers(userIds).map(users -> {
+					Ticket ticket = toDetail(document, users);
+					ticket.setChanges(changeDocuments.stream()
+							.map(change -> toChangeStatus(change, users))
+							.collect(Collectors.toList()));
+					return ticket;
+				});
+			});
+		});
+	}
+	
+	@Override
+	public Mono<Page<TicketItem>> findByFilter(Pageable pages, TicketFilter filter, Integer number) {
+		return Mono.zip(this.ticketRepository.findByFilter(filter, number, pages).collectList(),
+				this.ticketRepository.countByFilter(filter, number))
+				.flatMap(result -> {
+					List<TicketDocument> documents = result.getT1();
+					List<String> userIds = documents.stream()
+							.flatMap(document -> Arrays.asList(idOf(document.getUser()), idOf(document.getAssigneUser())).stream())
+							.collect(Collectors.toList());
+					return findUsers(userIds).map(users -> new PageImpl<>(documents.stream()
+							.map(document -> TicketItem.of(toTicket(document, users), users))
+							.collect(Collectors.toList()), pages, result.getT2()));
+				});
+	}
+	
+	@Override
+	public Mono<Summary> findSummary() {
+		return this.reactiveMongoTemplate.findById(TicketCounter.ALL, TicketCounter.class)
+				.map(Summary::of)
+				.defaultIfEmpty(Summary.of(null));
+	}
+	
+	/**
+	 * Carrega em uma única consulta todos os usuários referenciados, indexados pelo id.
+	 */
+	private Mono<Map<String, User>> findUsers(Collection<String> ids) {
+		List<String> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		if (distinct.isEmpty()) {
+			return Mono.just(Collections.emptyMap());
+		}
+		return this.userRepository.findAllById(distinct).collectMap(User::getId);
+	}
+	
+	private Ticket toTicket(TicketDocument document, Map<String, User> users) {
+		Ticket ticket = new Ticket();
+		ticket.setId(document.getId());
+		ticket.setNumber(document.getNumber());
+		ticket.setTitle(document.getTitle());
+		ticket.setStatus(document.getStatus());
+		ticket.setPriority(document.getPriority());
+		ticket.setDate(document.getDate());
+		ticket.setUser(users.get(idOf(document.getUser())));
+		ticket.setAssigneUser(users.get(idOf(document.getAssigneUser())));
+		ticket.setVersion(document.getVersion());
+		ticket.setLastModified(document.getLastModified());
+		return ticket;
+	}
+	
+	private Ticket toDetail(TicketDocument document, Map<String, User> users) {
+		Ticket ticket = toTicket(document, users);
+		ticket.setDescription(document.getDescription());
+		ticket.setImageId(document.getImageId());
+		ticket.setRecentChanges(document.getRecentChanges());
+		return ticket;
+	}
+	
+	private ChangeStatus toChangeStatus(ChangeStatusDocument document, Map<String, User> users) {
+		ChangeStatus changeStatus = new ChangeStatus();
+		changeStatus.setId(document.getId());
+		changeStatus.setDateChange(document.getDateChange());
+		changeStatus.setStatus(document.getStatus());
+		changeStatus.setUserChange(users.get(idOf(document.getUserChange())));
+		return changeStatus;
+	}
+	
+	private String idOf(DBRef reference) {
+		return reference != null && reference.getId() != null ? reference.getId().toString() : null;
+	}
+}
@@ -0,0 +1,63 @@
+package com.helpdesk.api.enums;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class StatusEnumTest {
+	
+	@Test
+	public void followsTheServiceFlow() {
+		assertTrue(StatusEnum.New.canChangeTo(StatusEnum.Assigned));
+		assertTrue(StatusEnum.Assigned.canChangeTo(StatusEnum.Resolved));
+		assertTrue(StatusEnum.Resolved.canChangeTo(StatusEnum.Approved));
+		assertTrue(StatusEnum.Resolved.canChangeTo(StatusEnum.Disaproved));
+		assertTrue(StatusEnum.Disaproved.canChangeTo(StatusEnum.Assigned));
+		assertTrue(StatusEnum.Disaproved.canChangeTo(StatusEnum.Resolved));
+		assertTrue(StatusEnum.Approved.canChangeTo(StatusEnum.Closed));
+	}
+	
+	@Test
+	public void rejectsSkippedAndBackwardChanges() {
+		assertFalse(StatusEnum.New.canChangeTo(StatusEnum.Resolved));
+		assertFalse(StatusEnum.New.canChangeTo(StatusEnum.Closed));
+		assertFalse(StatusEnum.Assigned.canChangeTo(StatusEnum.Approved));
+		assertFalse(StatusEnum.Resolved.canChangeTo(StatusEnum.Closed));
+		assertFalse(StatusEnum.Approved.canChangeTo(StatusEnum.Disaproved));
+		for (StatusEnum status : StatusEnum.values()) {
+			assertFalse(StatusEnum.Closed.canChangeTo(status));
+			assertFalse(status.canChangeTo(status));
+			assertFalse(status.canChangeTo(StatusEnum.New));
+		}
+	}
+	
+	@Test
+	public void changeableToListsTheSources() {
+		assertEquals(Arrays.asList(StatusEnum.New, StatusEnum.Disaproved), StatusEnum.changeableTo(StatusEnum.Assigned));
+		assertEquals(Arrays.asList(StatusEnum.Assigned, StatusEnum.Disaproved), StatusEnum.changeableTo(StatusEnum.Resolved));
+		assertEquals(Collections.singletonList(StatusEnum.Approved), StatusEnum.changeableTo(StatusEnum.Closed));
+		assertTrue(StatusEnum.changeableTo(StatusEnum.New).isEmpty());
+	}
+	
+	@Test
+	public void isStatusAcceptsOnlyTheStatusNames() {
+		for (StatusEnum status : StatusEnum.values()) {
+			assertTrue(StatusEnum.isStatus(status.name()));
+		}
+		assertFalse(StatusEnum.isStatus("closed"));
+		assertFalse(StatusEnum.isStatus("Unknown"));
+		assertFalse(StatusEnum.isStatus(null));
+	}
+	
+	@Test
+	public void onlyApprovalAndDisapprovalAreCustomerDecisions() {
+		for (StatusEnum status : StatusEnum.values()) {
+			assertEquals(status == StatusEnum.Approved || status == StatusEnum.Disaproved, status.isCustomerDecision());
+		}
+	}
+}
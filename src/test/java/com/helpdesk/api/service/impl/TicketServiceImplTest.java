@@ -0,0 +1,323 @@
+package com.helpdesk.api.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.helpdesk.api.dto.CursorSlice;
+import com.helpdesk.api.dto.TicketEvent;
+import com.helpdesk.api.dto.TicketFilter;
+import com.helpdesk.api.dto.TicketItem;
+import com.helpdesk.api.dto.TicketStatusResult;
+import com.helpdesk.api.entity.ChangeStatus;
+import com.helpdesk.api.entity.Ticket;
+import com.helpdesk.api.entity.User;
+import com.helpdesk.api.enums.StatusEnum;
+import com.helpdesk.api.repository.ChangeStatusRepository;
+import com.helpdesk.api.repository.TicketRepository;
+import com.helpdesk.api.service.AttachmentService;
+import com.helpdesk.api.service.RevisionService;
+import com.helpdesk.api.service.TicketCounterService;
+import com.helpdesk.api.service.TicketEventService;
+import com.helpdesk.api.service.UserService;
+
+/**
+ * A revisão dos tickets compõe o ETag dos resumos e das listagens, então ela só pode mudar depois que
+ * contadores e histórico já foram gravados. Caso contrário, uma consulta no intervalo guardaria os dados
+ * antigos sob o ETag novo.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TicketServiceImplTest {
+	
+	@Mock
+	private TicketRepository ticketRepository;
+	
+	@Mock
+	private ChangeStatusRepository changeStatusRepository;
+	
+	@Mock
+	private TicketCounterService ticketCounterService;
+	
+	@Mock
+	private MongoTemplate mongoTemplate;
+	
+	@Mock
+	private AttachmentService attachmentService;
+	
+	@Mock
+	private UserService userService;
+	
+	@Mock
+	private TicketEventService ticketEventService;
+	
+	@Mock
+	private RevisionService revisionService;
+	
+	@InjectMocks
+	private TicketServiceImpl ticketService;
+	
+	@Before
+	public void setUp() {
+		ReflectionTestUtils.setField(this.ticketService, "cursorMaxCount", 100);
+	}
+	
+	@Test
+	public void createOrUpdateIncrementsRevisionAfterCounters() {
+		when(this.ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		
+		this.ticketService.createOrUpdate(new Ticket());
+		
+		InOrder order = inOrder(this.ticketRepository, this.ticketCounterService, this.revisionService);
+		order.verify(this.ticketRepository).save(any(Ticket.class));
+		order.verify(this.ticketCounterService).update(any(), any());
+		order.verify(this.revisionService).increment(RevisionService.TICKET);
+		order.verifyNoMoreInteractions();
+	}
+	
+	@Test
+	public void createOrUpdateRemovesTheStoredImageWhenTheSaveFails() {
+		when(this.attachmentService.storeDataUrl("data:image/png;base64,AA==")).thenReturn("image");
+		when(this.ticketRepository.save(any(Ticket.class))).thenThrow(new IllegalStateException("save failed"));
+		Ticket ticket = new Ticket();
+		ticket.setImage("data:image/png;base64,AA==");
+		
+		try {
+			this.ticketService.createOrUpdate(ticket);
+			fail("save failure was not propagated");
+		} catch (IllegalStateException e) {
+			//A falha da gravação chega ao controller
+		}
+		
+		verify(this.attachmentService).delete("image");
+		assertNull(ticket.getImageId());
+		verify(this.revisionService, never()).increment(any());
+	}
+	
+	@Test
+	public void changeStatusIncrementsRevisionAfterCountersAndHistory() {
+		Ticket ticket = new Ticket();
+		ticket.setId("1");
+		ticket.setStatus(StatusEnum.New);
+		ticket.setVersion(1L);
+		when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Ticket.class)))
+				.thenReturn(ticket);
+		
+		this.ticketService.changeStatus("1", StatusEnum.Assigned, new User(), 1L);
+		
+		InOrder order = inOrder(this.ticketCounterService, this.changeStatusRepository, this.revisionService);
+		order.verify(this.ticketCounterService).update(any(), any());
+		order.verify(this.changeStatusRepository).save(any(ChangeStatus.class));
+		order.verify(this.revisionService).increment(RevisionService.TICKET);
+		order.verifyNoMoreInteractions();
+	}
+	
+	@Test
+	public void reassignmentEventCarriesThePreviousAssignee() {
+		User previousAssignee = new User();
+		previousAssignee.setId("previous");
+		User technician = new User();
+		technician.setId("technician");
+		Ticket ticket = ticket("1", StatusEnum.Disaproved);
+		ticket.setAssigneUser(previousAssignee);
+		ticket.setVersion(1L);
+		when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Ticket.class)))
+				.thenReturn(ticket);
+		when(this.ticketEventService.hasSubscribers()).thenReturn(true);
+		
+		this.ticketService.changeStatus("1", StatusEnum.Assigned, technician, 1L);
+		
+		ArgumentCaptor<TicketEvent> event = ArgumentCaptor.forClass(TicketEvent.class);
+		verify(this.ticketEventService).publish(event.capture());
+		assertEquals("technician", event.getValue().getAssigneUserId());
+		assertEquals("previous", event.getValue().getPreviousAssigneUserId());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void changeStatusRejectsChangesOutsideTheFlow() {
+		when(this.mongoTemplate.findOne(any(Query.class), eq(Ticket.class))).thenReturn(ticket("1", StatusEnum.Closed));
+		
+		this.ticketService.changeStatus("1", StatusEnum.Assigned, new User(), null);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void batchRejectsCustomerDecisions() {
+		this.ticketService.changeStatus(Arrays.asList("1"), StatusEnum.Approved, new User());
+	}
+	
+	/**
+	 * O ticket 2 é alterado por outra requisição entre a leitura e a alteração: ele não pode gerar histórico
+	 * nem entrar nos contadores desta chamada.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void batchCountsOnlyTicketsChangedByThisCall() {
+		when(this.mongoTemplate.find(any(Query.class), eq(Ticket.class)))
+				.thenReturn(Arrays.asList(ticket("1", StatusEnum.New), ticket("2", StatusEnum.New)));
+		when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Ticket.class)))
+				.thenAnswer(invocation -> "1".equals(invocation.<Query>getArgument(0).getQueryObject().get("id"))
+						? ticket("1", StatusEnum.New) : null);
+		
+		List<TicketStatusResult> results = this.ticketService.changeStatus(Arrays.asList("1", "2"), StatusEnum.Assigned, new User());
+		
+		assertEquals(StatusEnum.Assigned, results.get(0).getStatus());
+		assertNull(results.get(0).getError());
+		assertEquals("Status changed concurrently Id: 2", results.get(1).getError());
+		ArgumentCaptor<Collection<ChangeStatus>> changes = ArgumentCaptor.forClass(Collection.class);
+		verify(this.mongoTemplate).insert(changes.capture(), eq(ChangeStatus.class));
+		assertEquals(1, changes.getValue().size());
+		ArgumentCaptor<Collection<Ticket>> before = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<Collection<Ticket>> after = ArgumentCaptor.forClass(Collection.class);
+		verify(this.ticketCounterService).updateAll(before.capture(), after.capture());
+		assertEquals(1, before.getValue().size());
+		assertEquals("1", after.getValue().iterator().next().getId());
+		verify(this.revisionService).increment(RevisionService.TICKET);
+	}
+	
+	@Test
+	public void batchWithoutChangesKeepsCountersAndRevision() {
+		when(this.mongoTemplate.find(any(Query.class), eq(Ticket.class))).thenReturn(Arrays.asList(ticket("1", StatusEnum.Closed)));
+		
+		List<TicketStatusResult> results = this.ticketService.changeStatus(Arrays.asList("1"), StatusEnum.Assigned, new User());
+		
+		assertEquals("Invalid status change: Closed -> Assigned", results.get(0).getError());
+		verify(this.mongoTemplate, never()).insert(anyCollection(), eq(ChangeStatus.class));
+		verify(this.ticketCounterService, never()).updateAll(anyCollection(), anyCollection());
+		verify(this.revisionService, never()).increment(any());
+	}
+	
+	@Test
+	public void deleteCountsDownTheRemovedDocument() {
+		Ticket removed = ticket("1", StatusEnum.Resolved);
+		when(this.mongoTemplate.findAndRemove(any(Query.class), eq(Ticket.class))).thenReturn(removed);
+		
+		assertEquals(removed, this.ticketService.delete("1"));
+		
+		InOrder order = inOrder(this.ticketCounterService, this.revisionService);
+		order.verify(this.ticketCounterService).update(removed, null);
+		order.verify(this.revisionService).increment(RevisionService.TICKET);
+	}
+	
+	@Test
+	public void deleteOfARemovedTicketKeepsTheCounters() {
+		assertNull(this.ticketService.delete("1"));
+		
+		verify(this.ticketCounterService, never()).update(any(), any());
+		verify(this.revisionService, never()).increment(any());
+	}
+	
+	@Test
+	public void cursorPointsAfterTheLastTicketOfTheSlice() {
+		TicketFilter filter = new TicketFilter();
+		Date last = new Date(1500000000000L);
+		when(this.ticketRepository.findByFilterAfter(eq(filter), isNull(), isNull(), eq(3))).thenReturn(Arrays.asList(
+				ticket("3", new Date(1500000002000L)), ticket("2", last), ticket("1", new Date(1499999999000L))));
+		
+		CursorSlice<TicketItem> slice = this.ticketService.findByCursor(filter, null, 2);
+		
+		assertTrue(slice.isHasNext());
+		assertEquals(2, slice.getContent().size());
+		assertNotNull(slice.getCursor());
+		
+		this.ticketService.findByCursor(filter, slice.getCursor(), 2);
+		verify(this.ticketRepository).findByFilterAfter(filter, last, "2", 3);
+	}
+	
+	@Test
+	public void lastSliceHasNoCursor() {
+		when(this.ticketRepository.findByFilterAfter(any(), isNull(), isNull(), eq(3)))
+				.thenReturn(Arrays.asList(ticket("2", new Date()), ticket("1", new Date())));
+		
+		CursorSlice<TicketItem> slice = this.ticketService.findByCursor(new TicketFilter(), null, 2);
+		
+		assertFalse(slice.isHasNext());
+		assertNull(slice.getCursor());
+		assertEquals(2, slice.getContent().size());
+	}
+	
+	@Test
+	public void cursorAcceptsIdsWithSeparator() {
+		TicketFilter filter = new TicketFilter();
+		Date last = new Date(1500000000000L);
+		when(this.ticketRepository.findByFilterAfter(eq(filter), isNull(), isNull(), eq(2)))
+				.thenReturn(Arrays.asList(ticket("a:1", last), ticket("a:0", last)));
+		
+		CursorSlice<TicketItem> slice = this.ticketService.findByCursor(filter, null, 1);
+		this.ticketService.findByCursor(filter, slice.getCursor(), 1);
+		
+		verify(this.ticketRepository).findByFilterAfter(filter, last, "a:1", 2);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void cursorRejectsZeroCount() {
+		this.ticketService.findByCursor(new TicketFilter(), null, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void cursorRejectsNegativeCount() {
+		this.ticketService.findByCursor(new TicketFilter(), null, -5);
+	}
+	
+	@Test
+	public void cursorClampsHugeCount() {
+		this.ticketService.findByCursor(new TicketFilter(), null, Integer.MAX_VALUE);
+		
+		verify(this.ticketRepository).findByFilterAfter(any(), isNull(), isNull(), eq(101));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void cursorRejectsGarbage() {
+		this.ticketService.findByCursor(new TicketFilter(), "not a cursor", 10);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void cursorRejectsNonNumericDate() {
+		String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("abc:1".getBytes(StandardCharsets.UTF_8));
+		this.ticketService.findByCursor(new TicketFilter(), cursor, 10);
+	}
+	
+	private Ticket ticket(String id, Date date) {
+		Ticket ticket = new Ticket();
+		ticket.setId(id);
+		ticket.setDate(date);
+		return ticket;
+	}
+	
+	private Ticket ticket(String id, StatusEnum status) {
+		Ticket ticket = new Ticket();
+		ticket.setId(id);
+		ticket.setStatus(status);
+		return ticket;
+	}
+}